@@ -1,3 +1,4 @@
+import java.io.*;
 import java.util.*;
 import java.util.regex.*;
 
@@ -28,53 +29,178 @@ interface StudentOperations {
     void searchStudent(int rollNo);
 }
 
+// Hash index from roll number to list position using open addressing on plain int arrays,
+// so lookups never box the roll number into an Integer
+class RollNumberIndex {
+    private int[] keys;
+    // Position stored for each key, -1 marks an empty cell
+    private int[] values;
+    private int size = 0;
+    
+    public RollNumberIndex(int expectedSize) {
+        int capacity = 16;
+        while(capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, -1);
+    }
+    
+    // Method to get the position for a roll number, -1 if it is not indexed
+    public int get(int key) {
+        int mask = keys.length - 1;
+        for(int i = mix(key) & mask; values[i] != -1; i = (i + 1) & mask) {
+            if(keys[i] == key) {
+                return values[i];
+            }
+        }
+        return -1;
+    }
+    
+    // Method to set the position for a roll number
+    public void put(int key, int value) {
+        // Grow before passing half full: remove() shifts back every later entry of a probe chain
+        if((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while(values[i] != -1) {
+            if(keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+    
+    // Method to remove a roll number, returns its position or -1 if it was not indexed
+    public int remove(int key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while(values[i] != -1 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if(values[i] == -1) {
+            return -1;
+        }
+        int removed = values[i];
+        
+        // Shift later entries of the probe chain back, so no tombstones are needed
+        int gap = i;
+        for(int j = (gap + 1) & mask; values[j] != -1; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            // Move the entry if the gap lies between its home cell and its current cell
+            if(((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        values[gap] = -1;
+        size--;
+        return removed;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, -1);
+        size = 0;
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldValues[i] != -1) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+    
+    // Spreads consecutive roll numbers across the table
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
+
 class StudentManager implements StudentOperations {
+    // Insertion order is kept for display; removed students leave a null until the list is compacted
     private List<Student> students;
+    private RollNumberIndex index;
+    private int removed = 0;
     
     public StudentManager() {
         students = new ArrayList<>();
+        index = new RollNumberIndex(16);
     }
     
     public void addStudent(Student s) {
+        if(index.get(s.getRollNo()) != -1) {
+            System.out.println("Student with this roll number already exists");
+            return;
+        }
+        index.put(s.getRollNo(), students.size());
         students.add(s);
         System.out.println("Student added successfully");
     }
     
     public void displayStudents() {
-        if(students.isEmpty()) {
+        if(index.size() == 0) {
             System.out.println("No students found");
             return;
         }
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
         for(Student s : students) {
-            System.out.println(s);
+            if(s != null) {
+                out.println(s);
+            }
         }
+        out.flush();
     }
     
     public void removeStudent(int rollNo) {
-        boolean found = false;
-        Iterator<Student> it = students.iterator();
-        while(it.hasNext()) {
-            Student s = it.next();
-            if(s.getRollNo() == rollNo) {
-                it.remove();
-                found = true;
-                System.out.println("Student removed");
-                break;
-            }
-        }
-        if(!found) {
+        int pos = index.remove(rollNo);
+        if(pos == -1) {
             System.out.println("Student not found");
+            return;
         }
+        students.set(pos, null);
+        removed++;
+        // Compact once half the list is gaps, so removal stays O(1) amortized
+        if(removed * 2 > students.size()) {
+            compact();
+        }
+        System.out.println("Student removed");
     }
     
     public void searchStudent(int rollNo) {
+        int pos = index.get(rollNo);
+        if(pos != -1) {
+            System.out.println("Found: " + students.get(pos));
+        } else {
+            System.out.println("Student not found");
+        }
+    }
+    
+    // Method to drop the gaps left by removals and store the new positions in the index
+    private void compact() {
+        List<Student> remaining = new ArrayList<>(index.size());
         for(Student s : students) {
-            if(s.getRollNo() == rollNo) {
-                System.out.println("Found: " + s);
-                return;
+            if(s != null) {
+                index.put(s.getRollNo(), remaining.size());
+                remaining.add(s);
             }
         }
-        System.out.println("Student not found");
+        students = remaining;
+        removed = 0;
     }
 }
 
@@ -116,28 +242,28 @@ public class StudentRecords {
                         
                         sm.addStudent(new Student(rollNo, name, age));
                         break;
-                        
+                    
                     case 2:
                         sm.displayStudents();
                         break;
-                        
+                    
                     case 3:
                         System.out.print("Enter roll number to remove: ");
                         int removeRoll = sc.nextInt();
                         sm.removeStudent(removeRoll);
                         break;
-                        
+                    
                     case 4:
                         System.out.print("Enter roll number to search: ");
                         int searchRoll = sc.nextInt();
                         sm.searchStudent(searchRoll);
                         break;
-                        
+                    
                     case 5:
                         System.out.println("Exiting");
                         sc.close();
                         System.exit(0);
-                        
+                    
                     default:
                         System.out.println("Invalid choice");
                 }
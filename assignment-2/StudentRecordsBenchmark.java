@@ -0,0 +1,89 @@
+import java.io.*;
+import java.util.*;
+
+// Benchmark for StudentManager (StudentRecords) at several data sizes, with results exported as JSON
+//
+// Compile together with its store only: javac -sourcepath ../shared StudentRecordsBenchmark.java StudentRecords.java
+// Usage: java -Xmx4g StudentRecordsBenchmark [results.json] [size1,size2,...]
+public class StudentRecordsBenchmark {
+    private static final int MAX_POINT_OPS = 1000000;
+    private static final int LISTING_OPS = 3;
+    private static BenchmarkHarness harness = new BenchmarkHarness(30);
+    
+    public static void main(String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : "student-records-benchmark.json";
+        int[] sizes = args.length > 1 ? BenchmarkHarness.parseCounts(args[1]) : new int[] { 10000, 100000, 1000000 };
+        
+        // Every StudentManager method prints; discard that output while measuring
+        PrintStream console = System.out;
+        System.setOut(BenchmarkHarness.discard());
+        try {
+            harness.runSizes(5000, sizes, StudentRecordsBenchmark::runAll);
+        } finally {
+            System.setOut(console);
+        }
+        
+        harness.writeJson(output);
+    }
+    
+    private static void runAll(int size, boolean report) throws IOException {
+        Random random = new Random(42);
+        StudentManager sm = new StudentManager();
+        List<Student> created = new ArrayList<>(size);
+        
+        long start = System.nanoTime();
+        for(int i = 0; i < size; i++) {
+            Student s = new Student(i, "Student " + i, 18 + random.nextInt(10));
+            created.add(s);
+            sm.addStudent(s);
+        }
+        harness.record("studentRecords.add", size, size, System.nanoTime() - start, report);
+        
+        // Lookups and removals go through the roll-number index, so they run up to size times
+        int lookups = Math.min(size, MAX_POINT_OPS);
+        start = System.nanoTime();
+        for(int i = 0; i < lookups; i++) {
+            sm.searchStudent(random.nextInt(size));
+        }
+        harness.record("studentRecords.lookup", size, lookups, System.nanoTime() - start, report);
+        
+        // Adding an existing roll number is rejected by the index without touching the list
+        start = System.nanoTime();
+        for(int i = 0; i < lookups; i++) {
+            sm.addStudent(created.get(random.nextInt(size)));
+        }
+        harness.record("studentRecords.addDuplicate", size, lookups, System.nanoTime() - start, report);
+        
+        start = System.nanoTime();
+        for(int i = 0; i < LISTING_OPS; i++) {
+            sm.displayStudents();
+        }
+        harness.record("studentRecords.listing", size, LISTING_OPS, System.nanoTime() - start, report);
+        
+        // Listing to a console-like stream: one println per record versus the buffered listing
+        PrintStream quiet = System.out;
+        File displayFile = new File(System.getProperty("java.io.tmpdir"), "studentRecords-display.txt");
+        try(PrintStream display = BenchmarkHarness.consoleLike(displayFile)) {
+            System.setOut(display);
+            start = System.nanoTime();
+            for(Student s : created) {
+                System.out.println(s);
+            }
+            harness.record("studentRecords.display.println", size, size, System.nanoTime() - start, report);
+            
+            start = System.nanoTime();
+            sm.displayStudents();
+            harness.record("studentRecords.display", size, size, System.nanoTime() - start, report);
+        } finally {
+            System.setOut(quiet);
+            displayFile.delete();
+        }
+        
+        int deletes = Math.min(size, MAX_POINT_OPS);
+        start = System.nanoTime();
+        for(int i = 0; i < deletes; i++) {
+            sm.removeStudent(random.nextInt(size));
+        }
+        harness.record("studentRecords.delete", size, deletes, System.nanoTime() - start, report);
+    }
+}
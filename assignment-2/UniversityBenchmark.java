@@ -0,0 +1,110 @@
+import java.io.*;
+import java.util.*;
+
+// Benchmark for UniversityManager at several data sizes, with results exported as JSON
+//
+// Compile together with its store only: javac -sourcepath ../shared UniversityBenchmark.java UniversityManagement.java
+// Usage: java -Xmx4g UniversityBenchmark [results.json] [size1,size2,...]
+public class UniversityBenchmark {
+    private static final int MAX_POINT_OPS = 100000;
+    private static final int LISTING_OPS = 3;
+    // Course statistics no longer depend on the number of students, so they are run many times
+    private static final int AGGREGATE_OPS = 100000;
+    private static final int TOP_K = 10;
+    private static BenchmarkHarness harness = new BenchmarkHarness(28);
+    
+    public static void main(String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : "university-benchmark.json";
+        int[] sizes = args.length > 1 ? BenchmarkHarness.parseCounts(args[1]) : new int[] { 10000, 100000, 1000000 };
+        
+        // Every UniversityManager method prints; discard that output while measuring
+        PrintStream console = System.out;
+        System.setOut(BenchmarkHarness.discard());
+        try {
+            harness.runSizes(5000, sizes, UniversityBenchmark::runAll);
+        } finally {
+            System.setOut(console);
+        }
+        
+        harness.writeJson(output);
+    }
+    
+    private static void runAll(int size, boolean report) throws IOException {
+        Random random = new Random(42);
+        String[] courses = { "CSE", "ECE", "ME", "CE", "EE", "IT" };
+        UniversityManager um = new UniversityManager();
+        List<Student> created = new ArrayList<>(size);
+        
+        long start = System.nanoTime();
+        for(int i = 0; i < size; i++) {
+            Student s = new Student("S" + i, "Student " + i, courses[i % courses.length], random.nextInt(101));
+            created.add(s);
+            um.addStudent(s);
+        }
+        harness.record("university.add", size, size, System.nanoTime() - start, report);
+        
+        int lookups = Math.min(size, MAX_POINT_OPS);
+        start = System.nanoTime();
+        for(int i = 0; i < lookups; i++) {
+            um.searchStudent("S" + random.nextInt(size));
+        }
+        harness.record("university.lookup", size, lookups, System.nanoTime() - start, report);
+        
+        start = System.nanoTime();
+        for(int i = 0; i < LISTING_OPS; i++) {
+            um.sortByMarks();
+        }
+        harness.record("university.sortByMarks", size, LISTING_OPS, System.nanoTime() - start, report);
+        
+        // Top-K and rank read the marks buckets, so they are timed per query rather than per listing
+        start = System.nanoTime();
+        for(int i = 0; i < AGGREGATE_OPS; i++) {
+            um.displayTopStudents(TOP_K);
+        }
+        harness.record("university.topK", size, AGGREGATE_OPS, System.nanoTime() - start, report);
+        
+        start = System.nanoTime();
+        for(int i = 0; i < lookups; i++) {
+            um.displayRank("S" + random.nextInt(size));
+        }
+        harness.record("university.rank", size, lookups, System.nanoTime() - start, report);
+        
+        start = System.nanoTime();
+        for(int i = 0; i < AGGREGATE_OPS; i++) {
+            um.countStudentsByCourse();
+        }
+        harness.record("university.countByCourse", size, AGGREGATE_OPS, System.nanoTime() - start, report);
+        
+        start = System.nanoTime();
+        for(int i = 0; i < AGGREGATE_OPS; i++) {
+            um.displayCourseStatistics();
+        }
+        harness.record("university.courseStatistics", size, AGGREGATE_OPS, System.nanoTime() - start, report);
+        
+        // Listing to a console-like stream: one println per record versus the buffered listing
+        PrintStream quiet = System.out;
+        File displayFile = new File(System.getProperty("java.io.tmpdir"), "university-display.txt");
+        try(PrintStream display = BenchmarkHarness.consoleLike(displayFile)) {
+            System.setOut(display);
+            start = System.nanoTime();
+            for(Student s : created) {
+                System.out.println(s);
+            }
+            harness.record("university.display.println", size, size, System.nanoTime() - start, report);
+            
+            start = System.nanoTime();
+            um.displayStudents();
+            harness.record("university.display", size, size, System.nanoTime() - start, report);
+        } finally {
+            System.setOut(quiet);
+            displayFile.delete();
+        }
+        
+        int deletes = Math.min(size, MAX_POINT_OPS);
+        start = System.nanoTime();
+        for(int i = 0; i < deletes; i++) {
+            um.removeStudent("S" + i);
+        }
+        harness.record("university.delete", size, deletes, System.nanoTime() - start, report);
+    }
+}
@@ -1,3 +1,4 @@
+import java.io.*;
 import java.util.*;
 import java.util.regex.*;
 
@@ -40,15 +41,66 @@ interface UniversityOperations {
     void convertToTreeMap();
     void countStudentsByCourse();
     void displayUniqueCourses();
+    void displayCourseStatistics();
+    void displayTopStudents(int k);
+    void displayRank(String id);
+}
+
+// Running totals for one course, updated as students are added and removed
+class CourseStats {
+    int count = 0;
+    long markSum = 0;
+    int minMarks = UniversityManager.MAX_MARKS + 1;
+    int maxMarks = UniversityManager.MIN_MARKS - 1;
+    // Students per mark value, so min and max can be restored after a removal without a rescan
+    int[] markCounts = new int[UniversityManager.MAX_MARKS - UniversityManager.MIN_MARKS + 1];
+    
+    void add(int marks) {
+        count++;
+        markSum += marks;
+        markCounts[marks - UniversityManager.MIN_MARKS]++;
+        minMarks = Math.min(minMarks, marks);
+        maxMarks = Math.max(maxMarks, marks);
+    }
+    
+    void remove(int marks) {
+        count--;
+        markSum -= marks;
+        markCounts[marks - UniversityManager.MIN_MARKS]--;
+        if(count == 0) {
+            return;
+        }
+        // Walk at most the width of the mark range to the next occupied value
+        while(markCounts[minMarks - UniversityManager.MIN_MARKS] == 0) {
+            minMarks++;
+        }
+        while(markCounts[maxMarks - UniversityManager.MIN_MARKS] == 0) {
+            maxMarks--;
+        }
+    }
+    
+    double average() {
+        return (double) markSum / count;
+    }
 }
 
 class UniversityManager implements UniversityOperations {
+    static final int MIN_MARKS = 0;
+    static final int MAX_MARKS = 100;
+    
     private HashMap<String, Student> studentMap;
-    private Set<String> courses;
+    // Courses with at least one student; a course is dropped when its last student is removed
+    private HashMap<String, CourseStats> courseStats;
+    // Students grouped by marks, one bucket per mark value, so ordering by marks needs no sort
+    private List<LinkedHashMap<String, Student>> marksBuckets;
     
     public UniversityManager() {
         studentMap = new HashMap<>();
-        courses = new HashSet<>();
+        courseStats = new HashMap<>();
+        marksBuckets = new ArrayList<>(MAX_MARKS - MIN_MARKS + 1);
+        for(int m = MIN_MARKS; m <= MAX_MARKS; m++) {
+            marksBuckets.add(new LinkedHashMap<>());
+        }
     }
     
     public void addStudent(Student s) {
@@ -56,8 +108,13 @@ class UniversityManager implements UniversityOperations {
             System.out.println("Student with this ID already exists");
             return;
         }
+        if(s.getMarks() < MIN_MARKS || s.getMarks() > MAX_MARKS) {
+            System.out.println("Marks must be between " + MIN_MARKS + " and " + MAX_MARKS);
+            return;
+        }
         studentMap.put(s.getId(), s);
-        courses.add(s.getCourse());
+        courseStats.computeIfAbsent(s.getCourse(), c -> new CourseStats()).add(s.getMarks());
+        bucketOf(s.getMarks()).put(s.getId(), s);
         System.out.println("Student added successfully");
     }
     
@@ -66,14 +123,22 @@ class UniversityManager implements UniversityOperations {
             System.out.println("No students found");
             return;
         }
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
         for(Student s : studentMap.values()) {
-            System.out.println(s);
+            out.println(s);
         }
+        out.flush();
     }
     
     public void removeStudent(String id) {
         Student s = studentMap.remove(id);
         if(s != null) {
+            CourseStats stats = courseStats.get(s.getCourse());
+            stats.remove(s.getMarks());
+            if(stats.count == 0) {
+                courseStats.remove(s.getCourse());
+            }
+            bucketOf(s.getMarks()).remove(id);
             System.out.println("Student removed");
         } else {
             System.out.println("Student not found");
@@ -90,41 +155,97 @@ class UniversityManager implements UniversityOperations {
     }
     
     public void sortByMarks() {
-        List<Student> students = new ArrayList<>(studentMap.values());
-        Collections.sort(students, (s1, s2) -> s2.getMarks() - s1.getMarks());
-        
-        System.out.println("Students sorted by marks:");
-        for(Student s : students) {
-            System.out.println(s);
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
+        out.println("Students sorted by marks:");
+        // Buckets from the highest mark down already give the order, ties in the order they were added
+        for(int m = MAX_MARKS; m >= MIN_MARKS; m--) {
+            for(Student s : bucketOf(m).values()) {
+                out.println(s);
+            }
         }
+        out.flush();
+    }
+    
+    // Method to display the k students with the highest marks, reading only the buckets it needs
+    public void displayTopStudents(int k) {
+        if(studentMap.isEmpty()) {
+            System.out.println("No students found");
+            return;
+        }
+        // A top-K list is short, so it prints directly rather than through a buffered writer
+        System.out.println("Top " + k + " students by marks:");
+        int shown = 0;
+        for(int m = MAX_MARKS; m >= MIN_MARKS && shown < k; m--) {
+            for(Student s : bucketOf(m).values()) {
+                if(shown == k) {
+                    break;
+                }
+                System.out.println((shown + 1) + ". " + s);
+                shown++;
+            }
+        }
+    }
+    
+    // Method to display a student's rank by marks and percentile, counting bucket sizes instead of students
+    public void displayRank(String id) {
+        Student s = studentMap.get(id);
+        if(s == null) {
+            System.out.println("Student not found");
+            return;
+        }
+        int higher = 0;
+        for(int m = MAX_MARKS; m > s.getMarks(); m--) {
+            higher += bucketOf(m).size();
+        }
+        int tied = bucketOf(s.getMarks()).size();
+        // Students with equal marks share a rank; the percentile is the share scoring at or below this student
+        int rank = higher + 1;
+        double percentile = 100.0 * (studentMap.size() - higher) / studentMap.size();
+        System.out.printf("%s is ranked %d of %d (tied with %d), percentile %.2f%n", s.getId(), rank,
+                          studentMap.size(), tied - 1, percentile);
+    }
+    
+    private LinkedHashMap<String, Student> bucketOf(int marks) {
+        return marksBuckets.get(marks - MIN_MARKS);
     }
     
     public void convertToTreeMap() {
         TreeMap<String, Student> treeMap = new TreeMap<>(studentMap);
-        System.out.println("Converted to TreeMap (sorted by ID):");
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
+        out.println("Converted to TreeMap (sorted by ID):");
         for(Student s : treeMap.values()) {
-            System.out.println(s);
+            out.println(s);
         }
+        out.flush();
     }
     
     public void countStudentsByCourse() {
-        HashMap<String, Integer> courseCount = new HashMap<>();
-        for(Student s : studentMap.values()) {
-            courseCount.put(s.getCourse(), courseCount.getOrDefault(s.getCourse(), 0) + 1);
-        }
-        
         System.out.println("Students per course:");
-        for(Map.Entry<String, Integer> entry : courseCount.entrySet()) {
-            System.out.println(entry.getKey() + ": " + entry.getValue());
+        for(Map.Entry<String, CourseStats> entry : courseStats.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue().count);
         }
     }
     
     public void displayUniqueCourses() {
         System.out.println("Unique courses:");
-        for(String course : courses) {
+        for(String course : courseStats.keySet()) {
             System.out.println(course);
         }
     }
+    
+    // Method to display count, average, minimum and maximum marks for every course
+    public void displayCourseStatistics() {
+        if(courseStats.isEmpty()) {
+            System.out.println("No students found");
+            return;
+        }
+        System.out.println("Course statistics:");
+        for(Map.Entry<String, CourseStats> entry : courseStats.entrySet()) {
+            CourseStats stats = entry.getValue();
+            System.out.printf("%s: %d students, average %.2f, min %d, max %d%n", entry.getKey(),
+                              stats.count, stats.average(), stats.minMarks, stats.maxMarks);
+        }
+    }
 }
 
 public class UniversityManagement {
@@ -147,7 +268,10 @@ public class UniversityManagement {
                 System.out.println("6. Convert to TreeMap");
                 System.out.println("7. Count Students by Course");
                 System.out.println("8. Display Unique Courses");
-                System.out.println("9. Exit");
+                System.out.println("9. Display Course Statistics");
+                System.out.println("10. Display Top Students");
+                System.out.println("11. Display Student Rank");
+                System.out.println("12. Exit");
                 System.out.print("Enter choice: ");
                 int choice = sc.nextInt();
                 sc.nextLine();
@@ -171,44 +295,60 @@ public class UniversityManagement {
                         
                         um.addStudent(new Student(id, name, course, marks));
                         break;
-                        
+                    
                     case 2:
                         um.displayStudents();
                         break;
-                        
+                    
                     case 3:
                         System.out.print("Enter student ID: ");
                         String removeId = sc.nextLine();
                         um.removeStudent(removeId);
                         break;
-                        
+                    
                     case 4:
                         System.out.print("Enter student ID: ");
                         String searchId = sc.nextLine();
                         um.searchStudent(searchId);
                         break;
-                        
+                    
                     case 5:
                         um.sortByMarks();
                         break;
-                        
+                    
                     case 6:
                         um.convertToTreeMap();
                         break;
-                        
+                    
                     case 7:
                         um.countStudentsByCourse();
                         break;
-                        
+                    
                     case 8:
                         um.displayUniqueCourses();
                         break;
-                        
+                    
                     case 9:
+                        um.displayCourseStatistics();
+                        break;
+                    
+                    case 10:
+                        System.out.print("Enter number of students: ");
+                        int k = sc.nextInt();
+                        um.displayTopStudents(k);
+                        break;
+                    
+                    case 11:
+                        System.out.print("Enter student ID: ");
+                        String rankId = sc.nextLine();
+                        um.displayRank(rankId);
+                        break;
+                    
+                    case 12:
                         System.out.println("Exiting");
                         sc.close();
                         System.exit(0);
-                        
+                    
                     default:
                         System.out.println("Invalid choice");
                 }
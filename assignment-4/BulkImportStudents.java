@@ -0,0 +1,221 @@
+import java.io.*;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportStudents {
+    public static void main(String[] args) {
+        if(args.length < 1) {
+            System.out.println("Usage: java BulkImportStudents <file.csv> [batchSize] [commitEveryBatches] [rewriteBatches true|false]");
+            return;
+        }
+        
+        String csvFile = args[0];
+        int batchSize;
+        int commitInterval;
+        try {
+            batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+            commitInterval = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        } catch(NumberFormatException e) {
+            System.out.println("Batch size and commit interval must be whole numbers");
+            return;
+        }
+        if(batchSize <= 0 || commitInterval <= 0) {
+            System.out.println("Batch size and commit interval must be greater than 0");
+            return;
+        }
+        
+        // rewriteBatchedStatements lets the driver send a batch as multi-row INSERTs
+        boolean rewriteBatches = true;
+        if(args.length > 3) {
+            if(!args[3].equalsIgnoreCase("true") && !args[3].equalsIgnoreCase("false")) {
+                System.out.println("rewriteBatches must be true or false");
+                return;
+            }
+            rewriteBatches = Boolean.parseBoolean(args[3]);
+        }
+        String url = "jdbc:mysql://localhost:3306/studentdb?rewriteBatchedStatements=" + rewriteBatches;
+        String username = "root";
+        String password = "password";
+        
+        long rowsRead = 0;
+        long rowsInserted = 0;
+        long rowsFailed = 0;
+        // Rows executed since the last commit; they only count as inserted once committed
+        long rowsUncommitted = 0;
+        int batchNumber = 0;
+        int pending = 0;
+        long startTime = System.nanoTime();
+        
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch(ClassNotFoundException e) {
+            System.out.println("Error: MySQL Driver not found");
+            return;
+        }
+        
+        try(Connection conn = DriverManager.getConnection(url, username, password);
+            PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO Students (Eno, Name, Branch, Percentage, Semester, YearOfPassing) " +
+                "VALUES (?, ?, ?, ?, ?, ?)");
+            BufferedReader reader = new BufferedReader(new FileReader(csvFile))) {
+            
+            conn.setAutoCommit(false);
+            try {
+                // Expected format: Eno,Name,Branch,Percentage,Semester,YearOfPassing
+                String line;
+                long lineNumber = 0;
+                while((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if(line.trim().isEmpty() || (lineNumber == 1 && line.startsWith("Eno"))) {
+                        continue;
+                    }
+                    
+                    List<String> parts = parseCsvLine(line);
+                    if(parts == null) {
+                        System.out.println("Skipping line " + lineNumber + ": unbalanced quotes");
+                        rowsFailed++;
+                        continue;
+                    }
+                    if(parts.size() != 6) {
+                        System.out.println("Skipping line " + lineNumber + ": expected 6 fields, found " + parts.size());
+                        rowsFailed++;
+                        continue;
+                    }
+                    try {
+                        pstmt.setInt(1, Integer.parseInt(parts.get(0).trim()));
+                        pstmt.setString(2, parts.get(1).trim());
+                        pstmt.setString(3, parts.get(2).trim());
+                        pstmt.setDouble(4, Double.parseDouble(parts.get(3).trim()));
+                        pstmt.setInt(5, Integer.parseInt(parts.get(4).trim()));
+                        pstmt.setInt(6, Integer.parseInt(parts.get(5).trim()));
+                    } catch(NumberFormatException e) {
+                        System.out.println("Skipping line " + lineNumber + ": malformed number");
+                        rowsFailed++;
+                        continue;
+                    }
+                    
+                    pstmt.addBatch();
+                    rowsRead++;
+                    pending++;
+                    
+                    if(pending == batchSize) {
+                        batchNumber++;
+                        int[] result = executeBatch(pstmt, batchNumber, pending);
+                        rowsUncommitted += result[0];
+                        rowsFailed += result[1];
+                        pending = 0;
+                        
+                        if(batchNumber % commitInterval == 0) {
+                            conn.commit();
+                            rowsInserted += rowsUncommitted;
+                            rowsUncommitted = 0;
+                        }
+                    }
+                }
+                
+                if(pending > 0) {
+                    batchNumber++;
+                    int[] result = executeBatch(pstmt, batchNumber, pending);
+                    rowsUncommitted += result[0];
+                    rowsFailed += result[1];
+                }
+                conn.commit();
+                rowsInserted += rowsUncommitted;
+                rowsUncommitted = 0;
+            } catch(IOException | SQLException e) {
+                // Rows since the last commit are undone, so they are reported as failed rather than inserted
+                conn.rollback();
+                throw e;
+            }
+        } catch(IOException | SQLException e) {
+            System.out.println("Error: " + e.getMessage());
+            if(rowsUncommitted > 0) {
+                System.out.println("Rolled back " + rowsUncommitted + " uncommitted rows");
+                rowsFailed += rowsUncommitted;
+            }
+        }
+        
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.println("---------------------------------------------------");
+        System.out.println("Rows read: " + rowsRead);
+        System.out.println("Rows inserted: " + rowsInserted);
+        System.out.println("Rows failed: " + rowsFailed);
+        System.out.println("Batches: " + batchNumber + " (size " + batchSize + ", commit every " + commitInterval + ")");
+        System.out.printf("Time: %.2f s, Throughput: %.0f rows/sec%n", seconds, seconds > 0 ? rowsInserted / seconds : 0.0);
+    }
+    
+    // Method to split one CSV line into fields, keeping empty trailing fields
+    // A field may be wrapped in double quotes to hold commas, with "" for a quote inside it
+    // Returns null if a quote is left open or a closing quote is followed by anything but a comma
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while(true) {
+            if(i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while(true) {
+                    if(i == line.length()) {
+                        return null;
+                    }
+                    char c = line.charAt(i++);
+                    if(c != '"') {
+                        field.append(c);
+                    } else if(i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if(i < line.length() && line.charAt(i) != ',') {
+                    return null;
+                }
+            } else {
+                while(i < line.length() && line.charAt(i) != ',') {
+                    field.append(line.charAt(i++));
+                }
+            }
+            fields.add(field.toString());
+            field.setLength(0);
+            if(i == line.length()) {
+                return fields;
+            }
+            // Skip the comma
+            i++;
+        }
+    }
+    
+    // Method to run one batch and return {inserted, failed} row counts
+    private static int[] executeBatch(PreparedStatement pstmt, int batchNumber, int size) {
+        int[] counts;
+        try {
+            counts = pstmt.executeBatch();
+        } catch(BatchUpdateException e) {
+            counts = e.getUpdateCounts();
+            System.out.println("Batch " + batchNumber + " error: " + e.getMessage());
+        } catch(SQLException e) {
+            System.out.println("Batch " + batchNumber + " failed: " + e.getMessage());
+            return new int[] { 0, size };
+        }
+        
+        int inserted = 0;
+        int failed = 0;
+        for(int count : counts) {
+            if(count == Statement.EXECUTE_FAILED) {
+                failed++;
+            } else {
+                // Rewritten batches report SUCCESS_NO_INFO instead of a row count
+                inserted++;
+            }
+        }
+        // Drivers that stop at the first error return fewer counts than rows sent
+        failed += size - counts.length;
+        
+        if(failed > 0) {
+            System.out.println("Batch " + batchNumber + ": " + inserted + " inserted, " + failed + " failed");
+        }
+        return new int[] { inserted, failed };
+    }
+}
@@ -22,20 +22,31 @@ public class CreateTableAndInsert {
             stmt.executeUpdate(createTable);
             System.out.println("Table created successfully");
             
-            String insert1 = "INSERT INTO Students VALUES (101, 'Rahul', 'CSE', 85.5, 7, 2025)";
-            String insert2 = "INSERT INTO Students VALUES (102, 'Priya', 'EC', 78.0, 7, 2025)";
-            String insert3 = "INSERT INTO Students VALUES (103, 'Amit', 'Civil', 72.5, 6, 2024)";
-            String insert4 = "INSERT INTO Students VALUES (104, 'Sneha', 'CSE', 90.0, 8, 2025)";
-            String insert5 = "INSERT INTO Students VALUES (105, 'Vikram', 'Civil', 68.0, 5, 2024)";
+            // Insert all sample records in a single batch
+            PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO Students VALUES (?, ?, ?, ?, ?, ?)");
+            Object[][] records = {
+                {101, "Rahul", "CSE", 85.5, 7, 2025},
+                {102, "Priya", "EC", 78.0, 7, 2025},
+                {103, "Amit", "Civil", 72.5, 6, 2024},
+                {104, "Sneha", "CSE", 90.0, 8, 2025},
+                {105, "Vikram", "Civil", 68.0, 5, 2024}
+            };
             
-            stmt.executeUpdate(insert1);
-            stmt.executeUpdate(insert2);
-            stmt.executeUpdate(insert3);
-            stmt.executeUpdate(insert4);
-            stmt.executeUpdate(insert5);
+            for(Object[] record : records) {
+                pstmt.setInt(1, (Integer) record[0]);
+                pstmt.setString(2, (String) record[1]);
+                pstmt.setString(3, (String) record[2]);
+                pstmt.setDouble(4, (Double) record[3]);
+                pstmt.setInt(5, (Integer) record[4]);
+                pstmt.setInt(6, (Integer) record[5]);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
             
             System.out.println("Records inserted successfully");
             
+            pstmt.close();
             stmt.close();
             conn.close();
         } catch(Exception e) {
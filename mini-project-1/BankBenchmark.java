@@ -0,0 +1,118 @@
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.file.*;
+import java.util.*;
+
+// Benchmark for the BankOperations ledger at several account counts, with results exported as JSON
+//
+// Usage: java -Xmx4g BankBenchmark [results.json] [size1,size2,...]
+public class BankBenchmark {
+    private static final int MAX_POINT_OPS = 1000000;
+    private static BenchmarkHarness harness = new BenchmarkHarness(24);
+    private static PrintStream console = System.out;
+    
+    public static void main(String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : "bank-benchmark.json";
+        int[] sizes = args.length > 1 ? BenchmarkHarness.parseCounts(args[1]) : new int[] { 10000, 100000, 1000000 };
+        
+        harness.runSizes(5000, sizes, BankBenchmark::runAll);
+        harness.writeJson(output);
+    }
+    
+    private static void runAll(int size, boolean report) throws IOException {
+        Path dir = Files.createTempDirectory("bank-bench");
+        String filename = dir.resolve("account_data.txt").toString();
+        Random random = new Random(42);
+        
+        // Status messages from the ledger are not part of the measurement
+        PrintStream quiet = BenchmarkHarness.discard();
+        System.setOut(quiet);
+        try {
+            BankOperations bank = new BankOperations(filename);
+            // Opens the journal, so every change below is journaled
+            bank.loadFromFile();
+            
+            long start = System.nanoTime();
+            for(int i = 0; i < size; i++) {
+                String accNo = "AC" + i;
+                if(i % 2 == 0) {
+                    bank.openAccount(new SavingsAccount(accNo, "Customer " + i, 100000));
+                } else {
+                    bank.openAccount(new CurrentAccount(accNo, "Customer " + i, 100000));
+                }
+            }
+            harness.record("bank.open", size, size, System.nanoTime() - start, report);
+            
+            int ops = Math.min(size, MAX_POINT_OPS);
+            String[] targets = new String[ops];
+            for(int i = 0; i < ops; i++) {
+                targets[i] = "AC" + random.nextInt(size);
+            }
+            
+            start = System.nanoTime();
+            for(int i = 0; i < ops; i++) {
+                bank.deposit(targets[i], 10000);
+            }
+            harness.record("bank.deposit", size, ops, System.nanoTime() - start, report);
+            
+            start = System.nanoTime();
+            for(int i = 0; i < ops; i++) {
+                bank.withdraw(targets[i], 5000);
+            }
+            harness.record("bank.withdraw", size, ops, System.nanoTime() - start, report);
+            
+            start = System.nanoTime();
+            int posted = bank.postInterest(new BigDecimal("0.375"));
+            harness.record("bank.postInterest", size, posted, System.nanoTime() - start, report);
+            
+            // Recovery as after a crash: last periodic snapshot plus the journal tail
+            start = System.nanoTime();
+            BankOperations recovered = new BankOperations(filename);
+            recovered.loadFromFile();
+            harness.record("bank.recover", size, size, System.nanoTime() - start, report);
+            recovered.close();
+            
+            start = System.nanoTime();
+            bank.shutdown();
+            harness.record("bank.save", size, size, System.nanoTime() - start, report);
+            
+            start = System.nanoTime();
+            BankOperations reloaded = new BankOperations(filename);
+            reloaded.loadFromFile();
+            harness.record("bank.load", size, size, System.nanoTime() - start, report);
+            reloaded.close();
+            
+            start = System.nanoTime();
+            for(int i = 0; i < ops; i++) {
+                reloaded.getAccount(targets[i]);
+            }
+            harness.record("bank.lookup", size, ops, System.nanoTime() - start, report);
+            
+            // Listing to a console-like stream: println per line as before versus displayAll's buffered output
+            List<Account> listing = new ArrayList<>(size);
+            for(int i = 0; i < size; i++) {
+                listing.add(reloaded.getAccount("AC" + i));
+            }
+            try(PrintStream display = BenchmarkHarness.consoleLike(dir.resolve("display.txt").toFile())) {
+                System.setOut(display);
+                start = System.nanoTime();
+                for(Account account : listing) {
+                    System.out.println("\nAccount Number: " + account.getAccountNumber());
+                    System.out.println("Name: " + account.name);
+                    System.out.println("Type: " + account.getType());
+                    System.out.println("Balance: " + Account.formatAmount(account.getBalance()));
+                }
+                harness.record("bank.displayAll.println", size, size, System.nanoTime() - start, report);
+                
+                start = System.nanoTime();
+                reloaded.displayAll();
+                harness.record("bank.displayAll", size, size, System.nanoTime() - start, report);
+            } finally {
+                System.setOut(quiet);
+            }
+        } finally {
+            System.setOut(console);
+            BenchmarkHarness.deleteDirectory(dir.toFile());
+        }
+    }
+}
@@ -1,116 +1,672 @@
 import java.io.*;
-import java.util.Scanner;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
 
 // Abstract class representing a bank account
+// Amounts are long minor units (paise), so repeated deposits never pick up rounding errors
 abstract class Account {
     protected String accountNumber;
     protected String name;
-    protected double balance;
+    // Only changed while holding the account's ledger lock; volatile so reads need no lock
+    protected volatile long balance;
     
-    public Account(String accountNumber, String name, double balance) {
+    public Account(String accountNumber, String name, long balance) {
         this.accountNumber = accountNumber;
         this.name = name;
         this.balance = balance;
     }
     
     // Abstract methods to be implemented by child classes
-    abstract void deposit(double amount);
-    abstract void withdraw(double amount);
+    // They return false instead of printing so the ledger can run them in bulk
+    abstract boolean deposit(long amount);
+    abstract boolean withdraw(long amount);
+    abstract String getType();
+    
+    // Checks made by deposit and withdraw, so the ledger can journal a change before making it
+    boolean canDeposit(long amount) {
+        return amount > 0;
+    }
+    
+    abstract boolean canWithdraw(long amount);
+    
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+    
+    public long getBalance() {
+        return balance;
+    }
+    
+    // Method used by journal replay, which skips the checks the original operation already passed
+    void applyChange(long amount) {
+        balance += amount;
+    }
     
     // Method to display account details
     public void displayDetails() {
         System.out.println("\nAccount Number: " + accountNumber);
         System.out.println("Name: " + name);
-        System.out.println("Balance: " + balance);
+        System.out.println("Type: " + getType());
+        System.out.println("Balance: " + formatAmount(balance));
+    }
+    
+    // Method to write account details to a buffered writer shared by a whole listing
+    public void displayDetails(PrintWriter out) {
+        out.println();
+        out.println("Account Number: " + accountNumber);
+        out.println("Name: " + name);
+        out.println("Type: " + getType());
+        out.println("Balance: " + formatAmount(balance));
     }
     
     // Method to get account data as comma-separated string for file storage
     public String getAccountData() {
-        return accountNumber + "," + name + "," + balance;
+        return accountNumber + "," + name + "," + formatAmount(balance) + "," + getType();
+    }
+    
+    // Method to convert a rupee amount such as "12.50" to minor units without going through double
+    public static long parseAmount(String amount) {
+        return new BigDecimal(amount.trim()).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+    
+    public static String formatAmount(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2).toPlainString();
+    }
+    
+    // Method to rebuild an account from a line written by getAccountData
+    // Lines without a type were written by the single-account version and are savings accounts
+    public static Account fromAccountData(String line) {
+        String[] data = line.split(",");
+        String type = data[data.length - 1];
+        boolean typed = type.equals(CurrentAccount.TYPE) || type.equals(SavingsAccount.TYPE);
+        int balanceField = typed ? data.length - 2 : data.length - 1;
+        if(balanceField < 2) {
+            throw new IllegalArgumentException("Malformed account line");
+        }
+        
+        // Names may contain commas, so everything between the number and the balance is the name
+        String name = String.join(",", Arrays.copyOfRange(data, 1, balanceField));
+        long balance = parseAmount(data[balanceField]);
+        if(typed && type.equals(CurrentAccount.TYPE)) {
+            return new CurrentAccount(data[0], name, balance);
+        }
+        return new SavingsAccount(data[0], name, balance);
     }
 }
 
 // Savings account class with interest feature
 class SavingsAccount extends Account {
-    private double interestRate;
+    static final String TYPE = "Savings";
+    // Annual interest rate in percent
+    static final BigDecimal INTEREST_RATE = new BigDecimal("4.5");
+    private BigDecimal interestRate;
     
-    public SavingsAccount(String accountNumber, String name, double balance) {
+    public SavingsAccount(String accountNumber, String name, long balance) {
         super(accountNumber, name, balance);
-        this.interestRate = 4.5;
+        this.interestRate = INTEREST_RATE;
     }
     
     // Method overriding - deposit money into savings account
-    void deposit(double amount) {
-        if(amount > 0) {
+    boolean deposit(long amount) {
+        if(canDeposit(amount)) {
             balance += amount;
-            System.out.println("Deposited: " + amount);
-        } else {
-            System.out.println("Invalid amount");
+            return true;
         }
+        return false;
     }
     
     // Method overriding - withdraw money from savings account
-    void withdraw(double amount) {
-        if(amount > 0 && amount <= balance) {
+    boolean withdraw(long amount) {
+        if(canWithdraw(amount)) {
             balance -= amount;
-            System.out.println("Withdrawn: " + amount);
-        } else {
-            System.out.println("Insufficient balance or invalid amount");
+            return true;
         }
+        return false;
+    }
+    
+    boolean canWithdraw(long amount) {
+        return amount > 0 && amount <= balance;
     }
     
-    // Method to add interest to savings account
-    public void addInterest() {
-        double interest = balance * interestRate / 100;
+    String getType() {
+        return TYPE;
+    }
+    
+    // Method to add interest to savings account, returns the amount added
+    public long addInterest() {
+        return addInterest(interestRate);
+    }
+    
+    // Method to add interest at a given percentage, rounded half-even to the nearest paisa
+    long addInterest(BigDecimal ratePercent) {
+        long interest = interestFor(ratePercent);
         balance += interest;
-        System.out.println("Interest added: " + interest);
+        return interest;
+    }
+    
+    // Method to work out the interest addInterest would add at the account's own rate
+    long interestDue() {
+        return interestFor(interestRate);
+    }
+    
+    private long interestFor(BigDecimal ratePercent) {
+        return BigDecimal.valueOf(balance).multiply(ratePercent)
+            .movePointLeft(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
     }
 }
 
 // Current account class with overdraft facility
 class CurrentAccount extends Account {
-    private double overdraftLimit;
+    static final String TYPE = "Current";
+    private long overdraftLimit;
     
-    public CurrentAccount(String accountNumber, String name, double balance) {
+    public CurrentAccount(String accountNumber, String name, long balance) {
         super(accountNumber, name, balance);
-        this.overdraftLimit = 5000;
+        this.overdraftLimit = 500000;
     }
     
     // Method overriding - deposit money into current account
-    void deposit(double amount) {
-        if(amount > 0) {
+    boolean deposit(long amount) {
+        if(canDeposit(amount)) {
             balance += amount;
-            System.out.println("Deposited: " + amount);
-        } else {
-            System.out.println("Invalid amount");
+            return true;
         }
+        return false;
     }
     
     // Method overriding - withdraw with overdraft facility
-    void withdraw(double amount) {
-        if(amount > 0 && (balance + overdraftLimit) >= amount) {
+    boolean withdraw(long amount) {
+        if(canWithdraw(amount)) {
             balance -= amount;
-            System.out.println("Withdrawn: " + amount);
-        } else {
-            System.out.println("Exceeds overdraft limit");
+            return true;
+        }
+        return false;
+    }
+    
+    boolean canWithdraw(long amount) {
+        return amount > 0 && (balance + overdraftLimit) >= amount;
+    }
+    
+    String getType() {
+        return TYPE;
+    }
+}
+
+// Append-only binary journal with one fixed-size entry per balance change
+// Entries are written sequentially and forced to disk once per group instead of once per change
+class BankJournal {
+    public static final byte OPEN = 1;
+    public static final byte DEPOSIT = 2;
+    public static final byte WITHDRAW = 3;
+    public static final byte TRANSFER = 4;
+    public static final byte INTEREST = 5;
+    // Interest posted to every savings account at once; the amount is the rate in millionths of a percent
+    public static final byte INTEREST_RUN = 6;
+    
+    public static final int MAX_ACCOUNT_LENGTH = 24;
+    public static final int MAX_NAME_LENGTH = 48;
+    
+    // Each text field is a char count followed by a fixed number of chars
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int TYPE_OFFSET = 8;
+    private static final int ACCOUNT_TYPE_OFFSET = 9;
+    private static final int AMOUNT_OFFSET = 10;
+    private static final int ACCOUNT_OFFSET = 18;
+    private static final int TARGET_OFFSET = ACCOUNT_OFFSET + 2 + 2 * MAX_ACCOUNT_LENGTH;
+    private static final int NAME_OFFSET = TARGET_OFFSET + 2 + 2 * MAX_ACCOUNT_LENGTH;
+    // CRC32 of the rest of the entry, so a torn write at the tail is detected on recovery
+    private static final int CRC_OFFSET = NAME_OFFSET + 2 + 2 * MAX_NAME_LENGTH;
+    private static final int ENTRY_SIZE = CRC_OFFSET + 4;
+    private static final int ENTRIES_PER_READ = 4096;
+    
+    // One decoded journal entry
+    static class Entry {
+        long sequence;
+        byte type;
+        char accountType;
+        long amount;
+        String account;
+        String target;
+        String name;
+    }
+    
+    private FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE);
+    private CRC32 crc = new CRC32();
+    private int groupSize;
+    private int unsynced = 0;
+    private int entryCount = 0;
+    private long lastSequence = 0;
+    
+    public BankJournal(String filename, int groupSize) throws IOException {
+        this.groupSize = groupSize;
+        channel = FileChannel.open(Paths.get(filename),
+                                   StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+    
+    public static boolean fits(String value, int maxLength) {
+        return value.length() <= maxLength;
+    }
+    
+    // Method to append one entry and return its sequence number
+    public synchronized long append(byte type, char accountType, long amount, String account,
+                                    String target, String name) throws IOException {
+        long sequence = lastSequence + 1;
+        buffer.clear();
+        buffer.putLong(SEQUENCE_OFFSET, sequence);
+        buffer.put(TYPE_OFFSET, type);
+        buffer.put(ACCOUNT_TYPE_OFFSET, (byte) accountType);
+        buffer.putLong(AMOUNT_OFFSET, amount);
+        putString(ACCOUNT_OFFSET, account, MAX_ACCOUNT_LENGTH);
+        putString(TARGET_OFFSET, target, MAX_ACCOUNT_LENGTH);
+        putString(NAME_OFFSET, name, MAX_NAME_LENGTH);
+        crc.reset();
+        crc.update(buffer.array(), 0, CRC_OFFSET);
+        buffer.putInt(CRC_OFFSET, (int) crc.getValue());
+        
+        long start = channel.position();
+        try {
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch(IOException e) {
+            // Cut off a partly written entry, so later entries are not appended behind a torn one
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch(IOException ignored) {
+            }
+            throw e;
+        }
+        lastSequence = sequence;
+        entryCount++;
+        unsynced++;
+        if(unsynced >= groupSize) {
+            sync();
+        }
+        return sequence;
+    }
+    
+    // Method to force appended entries to disk
+    public synchronized void sync() throws IOException {
+        if(unsynced == 0) {
+            return;
+        }
+        channel.force(false);
+        unsynced = 0;
+    }
+    
+    // Method to replay entries newer than a snapshot and drop a torn entry left by a crash
+    // Returns the number of entries passed to the handler
+    public synchronized int recover(long afterSequence, Consumer<Entry> handler) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(ENTRY_SIZE * ENTRIES_PER_READ);
+        long position = 0;
+        long validEnd = 0;
+        int replayed = 0;
+        lastSequence = afterSequence;
+        entryCount = 0;
+        
+        channel.position(0);
+        boolean torn = false;
+        while(!torn && channel.read(chunk, position) > 0) {
+            chunk.flip();
+            if(chunk.remaining() < ENTRY_SIZE) {
+                // Only a partial entry is left
+                break;
+            }
+            while(chunk.remaining() >= ENTRY_SIZE) {
+                int start = chunk.position();
+                crc.reset();
+                crc.update(chunk.array(), start, CRC_OFFSET);
+                if(chunk.getInt(start + CRC_OFFSET) != (int) crc.getValue()) {
+                    torn = true;
+                    break;
+                }
+                Entry entry = decode(chunk, start);
+                if(entry.sequence > afterSequence) {
+                    handler.accept(entry);
+                    replayed++;
+                }
+                lastSequence = Math.max(lastSequence, entry.sequence);
+                entryCount++;
+                chunk.position(start + ENTRY_SIZE);
+                validEnd += ENTRY_SIZE;
+            }
+            position = validEnd;
+            chunk.clear();
+        }
+        
+        if(channel.size() > validEnd) {
+            System.out.println("Ignoring incomplete journal entry");
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+        return replayed;
+    }
+    
+    // Method to empty the journal once its entries are in a snapshot; sequence numbers keep counting
+    public synchronized void truncate() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(false);
+        entryCount = 0;
+        unsynced = 0;
+    }
+    
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public synchronized int getEntryCount() {
+        return entryCount;
+    }
+    
+    public synchronized void close() throws IOException {
+        sync();
+        channel.close();
+    }
+    
+    private void putString(int pos, String value, int maxLength) throws IOException {
+        if(value == null) {
+            value = "";
+        }
+        if(value.length() > maxLength) {
+            throw new IOException("Value longer than " + maxLength + " characters: " + value);
+        }
+        buffer.putShort(pos, (short) value.length());
+        for(int i = 0; i < maxLength; i++) {
+            buffer.putChar(pos + 2 + 2 * i, i < value.length() ? value.charAt(i) : 0);
+        }
+    }
+    
+    private static Entry decode(ByteBuffer buf, int start) {
+        Entry entry = new Entry();
+        entry.sequence = buf.getLong(start + SEQUENCE_OFFSET);
+        entry.type = buf.get(start + TYPE_OFFSET);
+        entry.accountType = (char) buf.get(start + ACCOUNT_TYPE_OFFSET);
+        entry.amount = buf.getLong(start + AMOUNT_OFFSET);
+        entry.account = getString(buf, start + ACCOUNT_OFFSET);
+        entry.target = getString(buf, start + TARGET_OFFSET);
+        entry.name = getString(buf, start + NAME_OFFSET);
+        return entry;
+    }
+    
+    private static String getString(ByteBuffer buf, int pos) {
+        char[] chars = new char[buf.getShort(pos)];
+        for(int i = 0; i < chars.length; i++) {
+            chars[i] = buf.getChar(pos + 2 + 2 * i);
+        }
+        return new String(chars);
+    }
+}
+
+// Fork-join task that posts interest to a range of savings accounts, splitting until ranges are small
+class InterestPostingTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+    private static final int CHUNK_SIZE = 10000;
+    
+    private SavingsAccount[] accounts;
+    private int from;
+    private int to;
+    private BigDecimal ratePercent;
+    
+    public InterestPostingTask(SavingsAccount[] accounts, int from, int to, BigDecimal ratePercent) {
+        this.accounts = accounts;
+        this.from = from;
+        this.to = to;
+        this.ratePercent = ratePercent;
+    }
+    
+    // Returns the total interest posted, in paise
+    protected Long compute() {
+        if(to - from <= CHUNK_SIZE) {
+            long total = 0;
+            for(int i = from; i < to; i++) {
+                total += accounts[i].addInterest(ratePercent);
+            }
+            return total;
         }
+        int mid = (from + to) >>> 1;
+        InterestPostingTask left = new InterestPostingTask(accounts, from, mid, ratePercent);
+        left.fork();
+        long right = new InterestPostingTask(accounts, mid, to, ratePercent).compute();
+        return left.join() + right;
     }
 }
 
-// Class to handle all bank operations
+// Class to handle all bank operations on a ledger of many accounts
 class BankOperations {
-    private Account account;
-    private String filename = "account_data.txt";
+    private static final String SNAPSHOT_HEADER = "#journal,";
+    
+    private ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+    // Balance changes to accounts in the same stripe are serialized by one of these locks
+    private Object[] stripes = new Object[64];
+    // Changes share this lock; a snapshot takes it exclusively so it matches one journal position
+    private ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private String filename;
+    private String journalFilename;
+    private BankJournal journal;
+    private int snapshotThreshold = 100000;
+    
+    public BankOperations() {
+        this("account_data.txt");
+    }
+    
+    public BankOperations(String filename) {
+        this.filename = filename;
+        this.journalFilename = filename.replaceFirst("\\.txt$", "") + ".journal";
+        for(int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+    }
+    
+    // Method to add an account to the ledger, returns false if the number is taken
+    public boolean openAccount(Account account) {
+        String accNo = account.getAccountNumber();
+        if(!BankJournal.fits(accNo, BankJournal.MAX_ACCOUNT_LENGTH)
+           || !BankJournal.fits(account.name, BankJournal.MAX_NAME_LENGTH)) {
+            throw new IllegalArgumentException("Account number or name too long");
+        }
+        
+        boolean opened;
+        snapshotLock.readLock().lock();
+        try {
+            // Journal before publishing, so no deposit to the new account can be journaled ahead of it
+            synchronized(stripeFor(accNo)) {
+                opened = !accounts.containsKey(accNo);
+                if(opened) {
+                    char type = account instanceof CurrentAccount ? 'C' : 'S';
+                    journal(BankJournal.OPEN, type, account.getBalance(), accNo, null, account.name);
+                    accounts.put(accNo, account);
+                }
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        if(opened) {
+            snapshotIfNeeded();
+        }
+        return opened;
+    }
+    
+    public Account getAccount(String accNo) {
+        return accounts.get(accNo);
+    }
+    
+    public int getAccountCount() {
+        return accounts.size();
+    }
+    
+    // Method to deposit into an account by number without any console output
+    public boolean deposit(String accNo, long amount) {
+        Account account = accounts.get(accNo);
+        if(account == null) {
+            return false;
+        }
+        boolean done;
+        snapshotLock.readLock().lock();
+        try {
+            // Journal before changing the balance, so a change that failed to save is never made
+            synchronized(stripeFor(accNo)) {
+                done = account.canDeposit(amount);
+                if(done) {
+                    journal(BankJournal.DEPOSIT, ' ', amount, accNo, null, null);
+                    account.deposit(amount);
+                }
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        if(done) {
+            snapshotIfNeeded();
+        }
+        return done;
+    }
+    
+    // Method to withdraw from an account by number without any console output
+    public boolean withdraw(String accNo, long amount) {
+        Account account = accounts.get(accNo);
+        if(account == null) {
+            return false;
+        }
+        boolean done;
+        snapshotLock.readLock().lock();
+        try {
+            synchronized(stripeFor(accNo)) {
+                done = account.canWithdraw(amount);
+                if(done) {
+                    journal(BankJournal.WITHDRAW, ' ', amount, accNo, null, null);
+                    account.withdraw(amount);
+                }
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        if(done) {
+            snapshotIfNeeded();
+        }
+        return done;
+    }
+    
+    // Method to add interest to a savings account, returns the amount added or -1 if not a savings account
+    public long addInterest(String accNo) {
+        Account account = accounts.get(accNo);
+        if(!(account instanceof SavingsAccount)) {
+            return -1;
+        }
+        long interest;
+        snapshotLock.readLock().lock();
+        try {
+            synchronized(stripeFor(accNo)) {
+                interest = ((SavingsAccount) account).interestDue();
+                journal(BankJournal.INTEREST, ' ', interest, accNo, null, null);
+                account.applyChange(interest);
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        snapshotIfNeeded();
+        return interest;
+    }
+    
+    // Method to post interest to every savings account as one batch, returns the number of accounts
+    // The whole run holds the snapshot lock exclusively, so no other change interleaves with it
+    public int postInterest(BigDecimal ratePercent) {
+        snapshotLock.writeLock().lock();
+        try {
+            // Replay recomputes the same amounts from this one entry, so a run is journaled as a single write
+            journal(BankJournal.INTEREST_RUN, ' ', ratePercent.movePointRight(6).longValueExact(), "", null, null);
+            syncJournal();
+            return applyInterestRun(ratePercent);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+    
+    private int applyInterestRun(BigDecimal ratePercent) {
+        SavingsAccount[] savings = accounts.values().parallelStream()
+            .filter(account -> account instanceof SavingsAccount)
+            .map(account -> (SavingsAccount) account)
+            .collect(Collectors.toList())
+            .toArray(new SavingsAccount[0]);
+        ForkJoinPool.commonPool().invoke(new InterestPostingTask(savings, 0, savings.length, ratePercent));
+        return savings.length;
+    }
+    
+    // Method to move money between two accounts, either both balances change or neither does
+    public boolean transfer(String fromAccNo, String toAccNo, long amount) {
+        Account from = accounts.get(fromAccNo);
+        Account to = accounts.get(toAccNo);
+        if(from == null || to == null || from == to || amount <= 0) {
+            return false;
+        }
+        
+        // Always lock the lower stripe first, so two opposite transfers cannot deadlock
+        int a = stripeIndex(fromAccNo);
+        int b = stripeIndex(toAccNo);
+        boolean done;
+        snapshotLock.readLock().lock();
+        try {
+            synchronized(stripes[Math.min(a, b)]) {
+                synchronized(stripes[Math.max(a, b)]) {
+                    done = from.canWithdraw(amount) && to.canDeposit(amount);
+                    // One entry for both sides, so replay can never apply half a transfer
+                    if(done) {
+                        journal(BankJournal.TRANSFER, ' ', amount, fromAccNo, toAccNo, null);
+                        from.withdraw(amount);
+                        to.deposit(amount);
+                    }
+                }
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        if(done) {
+            snapshotIfNeeded();
+        }
+        return done;
+    }
+    
+    // Method to add up every balance, used to check that no money was created or lost
+    public long getTotalBalance() {
+        long total = 0;
+        for(Account account : accounts.values()) {
+            total += account.getBalance();
+        }
+        return total;
+    }
     
     // Method to create a new account - demonstrates polymorphism
     public void createAccount(Scanner sc) {
         System.out.print("Enter Account Number: ");
         String accNo = sc.nextLine();
+        if(accNo.isEmpty() || accNo.contains(",") || !BankJournal.fits(accNo, BankJournal.MAX_ACCOUNT_LENGTH)) {
+            System.out.println("Account number must be 1 to " + BankJournal.MAX_ACCOUNT_LENGTH
+                               + " characters without commas");
+            return;
+        }
+        if(accounts.containsKey(accNo)) {
+            System.out.println("Account number already exists");
+            return;
+        }
         System.out.print("Enter Name: ");
         String name = sc.nextLine();
+        if(!BankJournal.fits(name, BankJournal.MAX_NAME_LENGTH)) {
+            System.out.println("Name cannot exceed " + BankJournal.MAX_NAME_LENGTH + " characters");
+            return;
+        }
         System.out.print("Enter Initial Balance: ");
-        double balance = sc.nextDouble();
-        sc.nextLine();
+        long balance = Account.parseAmount(sc.nextLine());
         
         System.out.println("1. Savings Account");
         System.out.println("2. Current Account");
@@ -119,80 +675,330 @@ class BankOperations {
         sc.nextLine();
         
         // Runtime polymorphism - account reference can point to SavingsAccount or CurrentAccount
+        Account account;
         if(type == 1) {
             account = new SavingsAccount(accNo, name, balance);
         } else {
             account = new CurrentAccount(accNo, name, balance);
         }
         
-        saveToFile();
-        System.out.println("Account created successfully");
+        try {
+            if(!openAccount(account)) {
+                System.out.println("Account number already exists");
+                return;
+            }
+            syncJournal();
+            System.out.println("Account created successfully");
+        } catch(UncheckedIOException e) {
+            reportSaveError(e);
+        }
     }
     
     // Method to deposit money
     public void deposit(Scanner sc) {
+        Account account = findAccount(sc);
         if(account == null) {
-            System.out.println("No account found");
             return;
         }
         System.out.print("Enter amount: ");
-        double amount = sc.nextDouble();
-        account.deposit(amount);
-        saveToFile();
+        long amount = Account.parseAmount(sc.nextLine());
+        try {
+            if(deposit(account.getAccountNumber(), amount)) {
+                syncJournal();
+                System.out.println("Deposited: " + Account.formatAmount(amount));
+            } else {
+                System.out.println("Invalid amount");
+            }
+        } catch(UncheckedIOException e) {
+            reportSaveError(e);
+        }
     }
     
     // Method to withdraw money
     public void withdraw(Scanner sc) {
+        Account account = findAccount(sc);
         if(account == null) {
-            System.out.println("No account found");
             return;
         }
         System.out.print("Enter amount: ");
-        double amount = sc.nextDouble();
-        account.withdraw(amount);
-        saveToFile();
+        long amount = Account.parseAmount(sc.nextLine());
+        try {
+            if(withdraw(account.getAccountNumber(), amount)) {
+                syncJournal();
+                System.out.println("Withdrawn: " + Account.formatAmount(amount));
+            } else if(account instanceof CurrentAccount) {
+                System.out.println("Exceeds overdraft limit");
+            } else {
+                System.out.println("Insufficient balance or invalid amount");
+            }
+        } catch(UncheckedIOException e) {
+            reportSaveError(e);
+        }
     }
     
-    // Method to check account balance
-    public void checkBalance() {
-        if(account == null) {
-            System.out.println("No account found");
+    // Method to transfer money between two accounts
+    public void transfer(Scanner sc) {
+        Account from = findAccount(sc);
+        if(from == null) {
+            return;
+        }
+        Account to = findAccount(sc);
+        if(to == null) {
             return;
         }
-        System.out.println("Balance: " + account.balance);
+        System.out.print("Enter amount: ");
+        long amount = Account.parseAmount(sc.nextLine());
+        try {
+            if(transfer(from.getAccountNumber(), to.getAccountNumber(), amount)) {
+                syncJournal();
+                System.out.println("Transferred: " + Account.formatAmount(amount));
+            } else {
+                System.out.println("Transfer failed: insufficient funds, invalid amount or same account");
+            }
+        } catch(UncheckedIOException e) {
+            reportSaveError(e);
+        }
+    }
+    
+    // Method to post one month of interest to all savings accounts
+    public void postMonthlyInterest() {
+        BigDecimal monthlyRate = SavingsAccount.INTEREST_RATE.divide(BigDecimal.valueOf(12));
+        long start = System.nanoTime();
+        int count;
+        try {
+            count = postInterest(monthlyRate);
+        } catch(UncheckedIOException e) {
+            reportSaveError(e);
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Posted %s%% interest to %d savings accounts in %.1f ms (%.0f accounts/sec)%n",
+                          monthlyRate.toPlainString(), count, seconds * 1000, seconds > 0 ? count / seconds : 0.0);
+    }
+    
+    // Method to check account balance
+    public void checkBalance(Scanner sc) {
+        Account account = findAccount(sc);
+        if(account != null) {
+            System.out.println("Balance: " + Account.formatAmount(account.getBalance()));
+        }
     }
     
     // Method to display account details
-    public void displayDetails() {
+    public void displayDetails(Scanner sc) {
+        Account account = findAccount(sc);
+        if(account != null) {
+            account.displayDetails();
+        }
+    }
+    
+    // Method to display every account ordered by account number
+    public void displayAll() {
+        if(accounts.isEmpty()) {
+            System.out.println("No accounts found");
+            return;
+        }
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
+        for(Account account : new TreeMap<>(accounts).values()) {
+            account.displayDetails(out);
+        }
+        out.flush();
+    }
+    
+    private int stripeIndex(String accNo) {
+        return (accNo.hashCode() & 0x7fffffff) % stripes.length;
+    }
+    
+    private Object stripeFor(String accNo) {
+        return stripes[stripeIndex(accNo)];
+    }
+    
+    // Method to tell the user a change was not saved instead of reporting it as done
+    // A failed append leaves every balance unchanged; a failed sync may lose changes already made
+    private void reportSaveError(UncheckedIOException e) {
+        System.out.println("Error saving data: " + e.getCause().getMessage());
+    }
+    
+    // Method to ask for an account number and look it up
+    private Account findAccount(Scanner sc) {
+        System.out.print("Enter Account Number: ");
+        Account account = accounts.get(sc.nextLine());
         if(account == null) {
             System.out.println("No account found");
+        }
+        return account;
+    }
+    
+    // Method to write one journal entry; without a journal only snapshots are saved
+    // Throws UncheckedIOException if the entry cannot be written, before the caller changes any balance
+    private void journal(byte type, char accountType, long amount, String accNo, String target, String name) {
+        if(journal == null) {
             return;
         }
-        account.displayDetails();
+        try {
+            journal.append(type, accountType, amount, accNo, target, name);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
     
-    // Method to save account data to file using BufferedWriter
-    private void saveToFile() {
-        try(BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-            writer.write(account.getAccountData());
-            writer.newLine();
+    // Method to force journaled changes to disk, so a change shown as done survives a crash
+    private void syncJournal() {
+        if(journal == null) {
+            return;
+        }
+        try {
+            journal.sync();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Method to take a snapshot once the journal grows too long
+    private void snapshotIfNeeded() {
+        if(journal == null || journal.getEntryCount() < snapshotPoint()) {
+            return;
+        }
+        snapshotLock.writeLock().lock();
+        try {
+            if(journal.getEntryCount() >= snapshotPoint()) {
+                writeSnapshot();
+            }
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+    
+    // Wait for at least one journal entry per account, so each full snapshot is paid for by as many changes
+    private int snapshotPoint() {
+        return Math.max(snapshotThreshold, accounts.size());
+    }
+    
+    // Method to save a snapshot of all accounts, then empty the journal
+    public void saveToFile() {
+        snapshotLock.writeLock().lock();
+        try {
+            writeSnapshot();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+    
+    // Method to write the snapshot file using BufferedWriter and empty the journal; caller holds the write lock
+    // Writes a temporary file first so a crash never leaves a half-written ledger
+    private void writeSnapshot() {
+        File tmp = new File(filename + ".tmp");
+        try {
+            try(BufferedWriter writer = new BufferedWriter(new FileWriter(tmp), 1 << 16)) {
+                // The snapshot holds every change up to this journal sequence number
+                writer.write(SNAPSHOT_HEADER + (journal != null ? journal.getLastSequence() : 0));
+                writer.newLine();
+                for(Account account : accounts.values()) {
+                    writer.write(account.getAccountData());
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp.toPath(), Paths.get(filename),
+                       StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if(journal != null) {
+                journal.truncate();
+            }
         } catch(IOException e) {
             System.out.println("Error saving data: " + e.getMessage());
         }
     }
     
-    // Method to load account data from file using BufferedReader
+    // Method to load the last snapshot using BufferedReader, then replay the journal written after it
     public void loadFromFile() {
-        try(BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String line = reader.readLine();
-            if(line != null) {
-                String[] data = line.split(",");
-                account = new SavingsAccount(data[0], data[1], Double.parseDouble(data[2]));
-                System.out.println("Account loaded successfully");
+        long start = System.nanoTime();
+        long snapshotSequence = 0;
+        int skipped = 0;
+        try(BufferedReader reader = new BufferedReader(new FileReader(filename), 1 << 16)) {
+            String line;
+            boolean first = true;
+            while((line = reader.readLine()) != null) {
+                if(first && line.startsWith(SNAPSHOT_HEADER)) {
+                    snapshotSequence = Long.parseLong(line.substring(SNAPSHOT_HEADER.length()));
+                    first = false;
+                    continue;
+                }
+                first = false;
+                if(line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    Account account = Account.fromAccountData(line);
+                    accounts.putIfAbsent(account.getAccountNumber(), account);
+                } catch(IllegalArgumentException | ArithmeticException e) {
+                    skipped++;
+                }
             }
         } catch(IOException e) {
             System.out.println("No existing account found");
         }
+        
+        int replayed = 0;
+        try {
+            journal = new BankJournal(journalFilename, 64);
+            replayed = journal.recover(snapshotSequence, this::applyEntry);
+        } catch(IOException e) {
+            System.out.println("Error opening journal: " + e.getMessage());
+        }
+        
+        System.out.printf("%d accounts loaded (%d journal entries replayed) in %.1f ms%n",
+                          accounts.size(), replayed, (System.nanoTime() - start) / 1e6);
+        if(skipped > 0) {
+            System.out.println("Skipped " + skipped + " malformed lines");
+        }
+    }
+    
+    // Method to redo one journaled change on top of the snapshot
+    private void applyEntry(BankJournal.Entry entry) {
+        if(entry.type == BankJournal.INTEREST_RUN) {
+            applyInterestRun(BigDecimal.valueOf(entry.amount, 6));
+            return;
+        }
+        if(entry.type == BankJournal.OPEN) {
+            Account account = entry.accountType == 'C'
+                ? new CurrentAccount(entry.account, entry.name, entry.amount)
+                : new SavingsAccount(entry.account, entry.name, entry.amount);
+            accounts.putIfAbsent(entry.account, account);
+            return;
+        }
+        Account account = accounts.get(entry.account);
+        if(account == null) {
+            return;
+        }
+        if(entry.type == BankJournal.DEPOSIT || entry.type == BankJournal.INTEREST) {
+            account.applyChange(entry.amount);
+        } else if(entry.type == BankJournal.WITHDRAW) {
+            account.applyChange(-entry.amount);
+        } else if(entry.type == BankJournal.TRANSFER) {
+            Account to = accounts.get(entry.target);
+            if(to != null) {
+                account.applyChange(-entry.amount);
+                to.applyChange(entry.amount);
+            }
+        }
+    }
+    
+    // Method to close the journal without taking a snapshot
+    public void close() {
+        if(journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch(IOException e) {
+            System.out.println("Error saving data: " + e.getMessage());
+        }
+        journal = null;
+    }
+    
+    // Method to take a final snapshot and close the journal on exit
+    public void shutdown() {
+        saveToFile();
+        close();
     }
 }
 
@@ -211,7 +1017,10 @@ public class BankManagementSystem {
             System.out.println("3. Withdraw");
             System.out.println("4. Check Balance");
             System.out.println("5. Account Details");
-            System.out.println("6. Exit");
+            System.out.println("6. Transfer");
+            System.out.println("7. List All Accounts");
+            System.out.println("8. Post Monthly Interest");
+            System.out.println("9. Exit");
             System.out.print("Enter choice: ");
             int choice = sc.nextInt();
             sc.nextLine();
@@ -220,9 +1029,13 @@ public class BankManagementSystem {
                 case 1: bank.createAccount(sc); break;
                 case 2: bank.deposit(sc); break;
                 case 3: bank.withdraw(sc); break;
-                case 4: bank.checkBalance(); break;
-                case 5: bank.displayDetails(); break;
-                case 6:
+                case 4: bank.checkBalance(sc); break;
+                case 5: bank.displayDetails(sc); break;
+                case 6: bank.transfer(sc); break;
+                case 7: bank.displayAll(); break;
+                case 8: bank.postMonthlyInterest(); break;
+                case 9:
+                    bank.shutdown();
                     System.out.println("Thank you");
                     sc.close();
                     System.exit(0);
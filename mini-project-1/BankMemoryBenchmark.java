@@ -0,0 +1,90 @@
+import java.lang.management.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Compares the memory used by the object ledger (BankOperations) and ColumnarAccountStore
+// Each model is built on its own and measured after a full GC, counting heap plus direct buffers
+//
+// Usage: java -Xmx4g BankMemoryBenchmark [size1,size2,...]
+public class BankMemoryBenchmark {
+    private static final int LOOKUPS = 1000000;
+    
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? BenchmarkHarness.parseCounts(args[0]) : new int[] { 1000000, 10000000 };
+        
+        for(int size : sizes) {
+            long objectBytes = measureObjects(size);
+            long columnarBytes = measureColumnar(size);
+            System.out.printf(Locale.ROOT, "%-10s size=%-9d %.1fx less memory%n", "", size,
+                              (double) objectBytes / columnarBytes);
+        }
+    }
+    
+    // Method to build the object ledger and return the memory it holds
+    private static long measureObjects(int size) {
+        long baseline = usedMemory();
+        BankOperations bank = new BankOperations("memory_benchmark.txt");
+        for(int i = 0; i < size; i++) {
+            Account account = i % 2 == 0
+                ? new SavingsAccount("AC" + i, "Customer " + i, 100000)
+                : new CurrentAccount("AC" + i, "Customer " + i, 100000);
+            bank.openAccount(account);
+        }
+        long bytes = usedMemory() - baseline;
+        report("objects", size, bytes, depositRate(size, accNo -> bank.deposit(accNo, 100)));
+        return bytes;
+    }
+    
+    // Method to build the columnar store and return the memory it holds
+    private static long measureColumnar(int size) {
+        long baseline = usedMemory();
+        // Sized up front, as when loading a ledger of known size
+        ColumnarAccountStore store = new ColumnarAccountStore(size);
+        for(int i = 0; i < size; i++) {
+            store.openAccount("AC" + i, "Customer " + i, i % 2 == 0 ? 'S' : 'C', 100000);
+        }
+        long bytes = usedMemory() - baseline;
+        report("columnar", size, bytes, depositRate(size, accNo -> store.deposit(store.slotOf(accNo), 100)));
+        return bytes;
+    }
+    
+    // Method to time deposits to random account numbers, in ops/sec
+    private static double depositRate(int size, Consumer<String> deposit) {
+        Random random = new Random(42);
+        String[] targets = new String[LOOKUPS];
+        for(int i = 0; i < LOOKUPS; i++) {
+            targets[i] = "AC" + random.nextInt(size);
+        }
+        long start = System.nanoTime();
+        for(String accNo : targets) {
+            deposit.accept(accNo);
+        }
+        return LOOKUPS * 1e9 / (System.nanoTime() - start);
+    }
+    
+    private static void report(String model, int size, long bytes, double depositRate) {
+        System.out.printf(Locale.ROOT, "%-10s size=%-9d %8.1f MB %8.1f bytes/account %12.0f deposits/s%n",
+                          model, size, bytes / 1048576.0, (double) bytes / size, depositRate);
+    }
+    
+    // Heap in use after a full GC plus memory held by direct buffers
+    private static long usedMemory() {
+        for(int i = 0; i < 3; i++) {
+            System.gc();
+            // Direct buffers are released by a cleaner thread after the collection
+            try {
+                Thread.sleep(100);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long direct = 0;
+        for(BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if(pool.getName().equals("direct")) {
+                direct = pool.getMemoryUsed();
+            }
+        }
+        return heap + direct;
+    }
+}
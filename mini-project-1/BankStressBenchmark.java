@@ -0,0 +1,89 @@
+import java.util.*;
+
+// Multithreaded stress run for the BankOperations ledger
+// Every thread mixes deposits, withdrawals and transfers on a shared set of accounts, then the
+// total balance is checked against the successful deposits and withdrawals to prove no update was lost
+//
+// Usage: java BankStressBenchmark [accounts] [opsPerThread] [threads1,threads2,...]
+public class BankStressBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        int[] threadCounts = args.length > 2 ? BenchmarkHarness.parseCounts(args[2]) : new int[] { 1, 2, 4, 8, 16 };
+        
+        // Warm up the JIT before measuring
+        run(accountCount, opsPerThread / 10, 4, false);
+        boolean allConsistent = true;
+        for(int threads : threadCounts) {
+            allConsistent &= run(accountCount, opsPerThread, threads, true);
+        }
+        
+        if(!allConsistent) {
+            System.out.println("FAILED: balances do not add up");
+            System.exit(1);
+        }
+    }
+    
+    private static boolean run(int accountCount, int opsPerThread, int threads, boolean report) throws InterruptedException {
+        BankOperations bank = new BankOperations("stress_accounts.txt");
+        String[] accNos = new String[accountCount];
+        for(int i = 0; i < accountCount; i++) {
+            accNos[i] = "AC" + i;
+            if(i % 2 == 0) {
+                bank.openAccount(new SavingsAccount(accNos[i], "Customer " + i, 100000));
+            } else {
+                bank.openAccount(new CurrentAccount(accNos[i], "Customer " + i, 100000));
+            }
+        }
+        long initialTotal = bank.getTotalBalance();
+        
+        // Net money each thread moved into the ledger through successful deposits and withdrawals
+        long[] netDeposits = new long[threads];
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for(int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(id);
+                long net = 0;
+                for(int i = 0; i < opsPerThread; i++) {
+                    String accNo = accNos[random.nextInt(accountCount)];
+                    long amount = 1 + random.nextInt(10000);
+                    int op = random.nextInt(3);
+                    if(op == 0) {
+                        if(bank.deposit(accNo, amount)) {
+                            net += amount;
+                        }
+                    } else if(op == 1) {
+                        if(bank.withdraw(accNo, amount)) {
+                            net -= amount;
+                        }
+                    } else {
+                        bank.transfer(accNo, accNos[random.nextInt(accountCount)], amount);
+                    }
+                }
+                netDeposits[id] = net;
+            });
+            workers[t].start();
+        }
+        for(Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - start;
+        
+        long expected = initialTotal;
+        for(long net : netDeposits) {
+            expected += net;
+        }
+        long actual = bank.getTotalBalance();
+        boolean consistent = expected == actual;
+        
+        if(report) {
+            long ops = (long) opsPerThread * threads;
+            System.out.printf(Locale.ROOT, "threads=%-3d accounts=%-8d %14.0f ops/s  total=%s expected=%s %s%n",
+                              threads, accountCount, ops * 1e9 / nanos, Account.formatAmount(actual),
+                              Account.formatAmount(expected), consistent ? "OK" : "MISMATCH");
+        }
+        return consistent;
+    }
+}
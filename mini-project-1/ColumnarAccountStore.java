@@ -0,0 +1,331 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Compact in-memory account store that keeps accounts in columns instead of one object each
+// Balances, overdraft limits, type flags and text offsets live in off-heap buffers indexed by an int slot;
+// account numbers and names are packed into an off-heap byte arena, and an int[] open-addressing
+// table maps account numbers to slots. Costs 50-70 bytes per account instead of about 180.
+//
+// This is a prototype measured by BankMemoryBenchmark: it is not connected to BankOperations, the journal
+// or the console, so the bank cannot run on it yet.
+public class ColumnarAccountStore {
+    private static final int STRIPES = 64;
+    
+    // Columns, one entry per slot
+    private ByteBuffer balances;
+    private ByteBuffer overdraftLimits;
+    private ByteBuffer types;
+    private ByteBuffer hashes;
+    private ByteBuffer textOffsets;
+    // Account number and name of each slot: [length][UTF-8 bytes][length][UTF-8 bytes]
+    private ByteBuffer arena;
+    // Open-addressing table of slot + 1, 0 means empty
+    private int[] index;
+    private int size = 0;
+    private int capacity;
+    
+    private Object[] stripes = new Object[STRIPES];
+    // Opening accounts may replace the column buffers, so it excludes all other operations
+    private ReentrantReadWriteLock growLock = new ReentrantReadWriteLock();
+    
+    public ColumnarAccountStore(int initialCapacity) {
+        capacity = Math.max(16, initialCapacity);
+        balances = ByteBuffer.allocateDirect(capacity * 8);
+        overdraftLimits = ByteBuffer.allocateDirect(capacity * 8);
+        types = ByteBuffer.allocateDirect(capacity);
+        hashes = ByteBuffer.allocateDirect(capacity * 4);
+        textOffsets = ByteBuffer.allocateDirect(capacity * 4);
+        arena = ByteBuffer.allocateDirect(capacity * 32);
+        index = new int[tableSizeFor(capacity)];
+        for(int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+    
+    // Method to add an account, returns its slot or -1 if the account number is taken
+    public int openAccount(String accNo, String name, char type, long balance) {
+        byte[] accBytes = accNo.getBytes(StandardCharsets.UTF_8);
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int hash = accNo.hashCode();
+        
+        growLock.writeLock().lock();
+        try {
+            if(find(accBytes, hash) >= 0) {
+                return -1;
+            }
+            if(size == capacity) {
+                growColumns();
+            }
+            int textSize = 4 + accBytes.length + nameBytes.length;
+            if(arena.capacity() - arena.position() < textSize) {
+                growArena(textSize);
+            }
+            
+            int slot = size++;
+            balances.putLong(slot * 8, balance);
+            overdraftLimits.putLong(slot * 8, type == 'C' ? 500000 : 0);
+            types.put(slot, (byte) type);
+            hashes.putInt(slot * 4, hash);
+            textOffsets.putInt(slot * 4, arena.position());
+            arena.putShort((short) accBytes.length).put(accBytes);
+            arena.putShort((short) nameBytes.length).put(nameBytes);
+            
+            // Double the slot index once accounts fill half of it, so a lookup rarely probes past a few entries
+            if(size * 2 > index.length) {
+                rebuildIndex(index.length * 2);
+            }
+            insert(slot, hash);
+            return slot;
+        } finally {
+            growLock.writeLock().unlock();
+        }
+    }
+    
+    // Method to find the slot of an account number, -1 if there is none
+    public int slotOf(String accNo) {
+        growLock.readLock().lock();
+        try {
+            return find(accNo.getBytes(StandardCharsets.UTF_8), accNo.hashCode());
+        } finally {
+            growLock.readLock().unlock();
+        }
+    }
+    
+    // Method to add to a slot's balance; false for a non-positive amount or a slot with no account
+    public boolean deposit(int slot, long amount) {
+        if(amount <= 0) {
+            return false;
+        }
+        growLock.readLock().lock();
+        try {
+            if(!isValidSlot(slot)) {
+                return false;
+            }
+            synchronized(stripes[slot % STRIPES]) {
+                balances.putLong(slot * 8, balances.getLong(slot * 8) + amount);
+                return true;
+            }
+        } finally {
+            growLock.readLock().unlock();
+        }
+    }
+    
+    // Method to withdraw within the balance plus the slot's overdraft limit
+    public boolean withdraw(int slot, long amount) {
+        if(amount <= 0) {
+            return false;
+        }
+        growLock.readLock().lock();
+        try {
+            if(!isValidSlot(slot)) {
+                return false;
+            }
+            synchronized(stripes[slot % STRIPES]) {
+                long balance = balances.getLong(slot * 8);
+                if(balance + overdraftLimits.getLong(slot * 8) < amount) {
+                    return false;
+                }
+                balances.putLong(slot * 8, balance - amount);
+                return true;
+            }
+        } finally {
+            growLock.readLock().unlock();
+        }
+    }
+    
+    // Method to move money between two slots, locking the lower stripe first like BankOperations
+    public boolean transfer(int from, int to, long amount) {
+        if(from == to || amount <= 0) {
+            return false;
+        }
+        growLock.readLock().lock();
+        try {
+            if(!isValidSlot(from) || !isValidSlot(to)) {
+                return false;
+            }
+            int a = from % STRIPES;
+            int b = to % STRIPES;
+            synchronized(stripes[Math.min(a, b)]) {
+                synchronized(stripes[Math.max(a, b)]) {
+                    long balance = balances.getLong(from * 8);
+                    if(balance + overdraftLimits.getLong(from * 8) < amount) {
+                        return false;
+                    }
+                    balances.putLong(from * 8, balance - amount);
+                    balances.putLong(to * 8, balances.getLong(to * 8) + amount);
+                    return true;
+                }
+            }
+        } finally {
+            growLock.readLock().unlock();
+        }
+    }
+    
+    public long getBalance(int slot) {
+        growLock.readLock().lock();
+        try {
+            checkSlot(slot);
+            synchronized(stripes[slot % STRIPES]) {
+                return balances.getLong(slot * 8);
+            }
+        } finally {
+            growLock.readLock().unlock();
+        }
+    }
+    
+    public char getType(int slot) {
+        growLock.readLock().lock();
+        try {
+            checkSlot(slot);
+            return (char) types.get(slot);
+        } finally {
+            growLock.readLock().unlock();
+        }
+    }
+    
+    public String getAccountNumber(int slot) {
+        growLock.readLock().lock();
+        try {
+            checkSlot(slot);
+            return readText(textOffsets.getInt(slot * 4));
+        } finally {
+            growLock.readLock().unlock();
+        }
+    }
+    
+    public String getName(int slot) {
+        growLock.readLock().lock();
+        try {
+            checkSlot(slot);
+            int offset = textOffsets.getInt(slot * 4);
+            return readText(offset + 2 + arena.getShort(offset));
+        } finally {
+            growLock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        growLock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            growLock.readLock().unlock();
+        }
+    }
+    
+    // Method to report the bytes held by the columns, the text arena and the index
+    public long getMemoryUsage() {
+        growLock.readLock().lock();
+        try {
+            return (long) balances.capacity() + overdraftLimits.capacity() + types.capacity()
+                + hashes.capacity() + textOffsets.capacity() + arena.capacity() + 4L * index.length;
+        } finally {
+            growLock.readLock().unlock();
+        }
+    }
+    
+    // Slots past size are spare capacity and -1 is what slotOf returns for an unknown account
+    // Caller holds a lock on growLock
+    private boolean isValidSlot(int slot) {
+        return slot >= 0 && slot < size;
+    }
+    
+    private void checkSlot(int slot) {
+        if(!isValidSlot(slot)) {
+            throw new IllegalArgumentException("No account in slot " + slot);
+        }
+    }
+    
+    // Caller holds a lock on growLock
+    private int find(byte[] accBytes, int hash) {
+        int mask = index.length - 1;
+        for(int i = mix(hash) & mask; index[i] != 0; i = (i + 1) & mask) {
+            int slot = index[i] - 1;
+            // Compare the stored hash first so most mismatches never touch the arena
+            if(hashes.getInt(slot * 4) == hash && textEquals(textOffsets.getInt(slot * 4), accBytes)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+    
+    private boolean textEquals(int offset, byte[] bytes) {
+        if(arena.getShort(offset) != bytes.length) {
+            return false;
+        }
+        for(int i = 0; i < bytes.length; i++) {
+            if(arena.get(offset + 2 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void insert(int slot, int hash) {
+        int mask = index.length - 1;
+        int i = mix(hash) & mask;
+        while(index[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        index[i] = slot + 1;
+    }
+    
+    private void rebuildIndex(int tableSize) {
+        index = new int[tableSize];
+        for(int slot = 0; slot < size; slot++) {
+            insert(slot, hashes.getInt(slot * 4));
+        }
+    }
+    
+    private void growColumns() {
+        capacity *= 2;
+        balances = copyInto(balances, capacity * 8);
+        overdraftLimits = copyInto(overdraftLimits, capacity * 8);
+        types = copyInto(types, capacity);
+        hashes = copyInto(hashes, capacity * 4);
+        textOffsets = copyInto(textOffsets, capacity * 4);
+    }
+    
+    private void growArena(int needed) {
+        long newCapacity = Math.max((long) arena.capacity() * 2, (long) arena.position() + needed);
+        if(newCapacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Account text arena is limited to 2 GB");
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect((int) newCapacity);
+        arena.flip();
+        grown.put(arena);
+        arena = grown;
+    }
+    
+    private static ByteBuffer copyInto(ByteBuffer old, int newCapacity) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(newCapacity);
+        old.clear();
+        grown.put(old);
+        grown.clear();
+        return grown;
+    }
+    
+    private String readText(int offset) {
+        int length = arena.getShort(offset);
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++) {
+            bytes[i] = arena.get(offset + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    // Spreads sequential account numbers such as "AC1", "AC2" across the table
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+    
+    private static int tableSizeFor(int capacity) {
+        int size = 16;
+        while(size < capacity * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
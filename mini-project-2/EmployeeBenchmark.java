@@ -0,0 +1,107 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Benchmark for EmployeeManagement at several data sizes, with results exported as JSON
+//
+// Usage: java -Xmx4g EmployeeBenchmark [results.json] [size1,size2,...]
+public class EmployeeBenchmark {
+    private static final int MAX_POINT_OPS = 100000;
+    private static BenchmarkHarness harness = new BenchmarkHarness(28);
+    private static PrintStream console = System.out;
+    // Keeps measured loops from being optimized away
+    private static long sink;
+    
+    public static void main(String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : "employee-benchmark.json";
+        int[] sizes = args.length > 1 ? BenchmarkHarness.parseCounts(args[1]) : new int[] { 10000, 100000, 1000000 };
+        
+        harness.runSizes(5000, sizes, EmployeeBenchmark::runAll);
+        harness.writeJson(output);
+    }
+    
+    private static void runAll(int size, boolean report) throws IOException {
+        Path dir = Files.createTempDirectory("employee-bench");
+        Random random = new Random(42);
+        
+        // Status messages from the store are not part of the measurement
+        PrintStream quiet = BenchmarkHarness.discard();
+        System.setOut(quiet);
+        try {
+            EmployeeManagement em = new EmployeeManagement(dir.toString(), EmployeeLog.SyncPolicy.GROUP_COMMIT, false);
+            
+            long start = System.nanoTime();
+            for(int i = 0; i < size; i++) {
+                em.addEmployee(new Employee("E" + i, "Employee " + i, 30000 + random.nextInt(70000), "D" + (i % 20)));
+            }
+            harness.record("employee.add", size, size, System.nanoTime() - start, report);
+            
+            Path writeBehindDir = Files.createTempDirectory("employee-bench");
+            EmployeeManagement writeBehind = new EmployeeManagement(writeBehindDir.toString(),
+                                                                    EmployeeLog.SyncPolicy.WRITE_BEHIND, false);
+            start = System.nanoTime();
+            for(int i = 0; i < size; i++) {
+                writeBehind.addEmployee(new Employee("E" + i, "Employee " + i, 30000 + random.nextInt(70000), "D" + (i % 20)));
+            }
+            // Include the final flush so the comparison with synchronous appends is fair
+            writeBehind.shutdown();
+            harness.record("employee.add.writeBehind", size, size, System.nanoTime() - start, report);
+            BenchmarkHarness.deleteDirectory(writeBehindDir.toFile());
+            
+            int lookups = Math.min(size, MAX_POINT_OPS);
+            start = System.nanoTime();
+            for(int i = 0; i < lookups; i++) {
+                em.getEmployee("E" + random.nextInt(size));
+            }
+            harness.record("employee.lookup", size, lookups, System.nanoTime() - start, report);
+            
+            start = System.nanoTime();
+            long count = 0;
+            for(Employee emp : em.getEmployeesSortedById()) {
+                count += emp.getId().length();
+            }
+            harness.record("employee.sortedListing", size, size, System.nanoTime() - start, report);
+            
+            // Listing to a console-like stream: one println per record versus displayAll's chunked output
+            List<Employee> listing = new ArrayList<>(em.getEmployeesSortedById());
+            try(PrintStream display = BenchmarkHarness.consoleLike(dir.resolve("display.txt").toFile())) {
+                System.setOut(display);
+                start = System.nanoTime();
+                for(Employee emp : listing) {
+                    System.out.println(emp);
+                }
+                harness.record("employee.displayAll.println", size, size, System.nanoTime() - start, report);
+                
+                start = System.nanoTime();
+                em.displayAll();
+                harness.record("employee.displayAll", size, size, System.nanoTime() - start, report);
+            } finally {
+                System.setOut(quiet);
+            }
+            
+            start = System.nanoTime();
+            int raised = em.applyRaise(emp -> true, 5);
+            harness.record("employee.bulkRaise", size, raised, System.nanoTime() - start, report);
+            
+            start = System.nanoTime();
+            em.shutdown();
+            harness.record("employee.save", size, size, System.nanoTime() - start, report);
+            
+            start = System.nanoTime();
+            em = new EmployeeManagement(dir.toString(), EmployeeLog.SyncPolicy.GROUP_COMMIT, false);
+            harness.record("employee.load", size, size, System.nanoTime() - start, report);
+            
+            int deletes = Math.min(size, MAX_POINT_OPS);
+            start = System.nanoTime();
+            for(int i = 0; i < deletes; i++) {
+                em.deleteEmployee("E" + i);
+            }
+            harness.record("employee.delete", size, deletes, System.nanoTime() - start, report);
+            em.shutdown();
+            sink += count;
+        } finally {
+            System.setOut(console);
+            BenchmarkHarness.deleteDirectory(dir.toFile());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+// Load generator for EmployeeServer that reports latency percentiles and throughput
+public class EmployeeLoadClient {
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 9090;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : 10000;
+        int pipeline = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+        
+        long[][] latencies = new long[connections][];
+        Thread[] threads = new Thread[connections];
+        long start = System.nanoTime();
+        
+        for(int c = 0; c < connections; c++) {
+            final int conn = c;
+            threads[c] = new Thread(() -> {
+                try {
+                    latencies[conn] = runConnection(host, port, conn, requests, pipeline);
+                } catch(IOException e) {
+                    System.out.println("Connection " + conn + " failed: " + e.getMessage());
+                    latencies[conn] = new long[0];
+                }
+            });
+            threads[c].start();
+        }
+        for(Thread t : threads) {
+            t.join();
+        }
+        
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int total = 0;
+        for(long[] l : latencies) {
+            total += l.length;
+        }
+        long[] all = new long[total];
+        int pos = 0;
+        for(long[] l : latencies) {
+            System.arraycopy(l, 0, all, pos, l.length);
+            pos += l.length;
+        }
+        Arrays.sort(all);
+        
+        System.out.println("Connections: " + connections + ", Requests: " + total + ", Pipeline depth: " + pipeline);
+        System.out.printf("Throughput: %.0f requests/sec%n", total / seconds);
+        if(total > 0) {
+            System.out.printf("Latency p50: %.3f ms, p99: %.3f ms, max: %.3f ms%n",
+                              percentile(all, 50) / 1e6, percentile(all, 99) / 1e6, all[total - 1] / 1e6);
+        }
+    }
+    
+    // Method to send requests in pipelined windows and record each response's latency
+    private static long[] runConnection(String host, int port, int conn, int requests, int pipeline) throws IOException {
+        long[] latencies = new long[requests];
+        Random random = new Random(conn);
+        int added = 0;
+        
+        try(Socket socket = new Socket(host, port);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()))) {
+            
+            socket.setTcpNoDelay(true);
+            int sent = 0;
+            while(sent < requests) {
+                int window = Math.min(pipeline, requests - sent);
+                for(int i = 0; i < window; i++) {
+                    int n = sent + i;
+                    // Mix: 10% add, 10% salary update, 80% lookup
+                    if(n % 10 == 0 || added == 0) {
+                        writer.write("ADD L" + conn + "-" + added + ",Load User,50000.0,Load\n");
+                        added++;
+                    } else if(n % 10 == 1) {
+                        writer.write("SALARY L" + conn + "-" + random.nextInt(added) + " " + (50000 + n) + "\n");
+                    } else {
+                        writer.write("GET L" + conn + "-" + random.nextInt(added) + "\n");
+                    }
+                }
+                long windowStart = System.nanoTime();
+                writer.flush();
+                
+                for(int i = 0; i < window; i++) {
+                    if(reader.readLine() == null) {
+                        throw new IOException("Server closed the connection");
+                    }
+                    latencies[sent + i] = System.nanoTime() - windowStart;
+                }
+                sent += window;
+            }
+            writer.write("QUIT\n");
+            writer.flush();
+        }
+        return latencies;
+    }
+    
+    private static long percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
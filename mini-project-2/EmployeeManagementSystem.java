@@ -1,12 +1,22 @@
 import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.*;
 
-// Employee class to store employee details
+// Employee class to store employee details; immutable so it can be shared between threads
 class Employee {
-    private String id;
-    private String name;
-    private double salary;
-    private String department;
+    private final String id;
+    private final String name;
+    private final double salary;
+    private final String department;
     
     public Employee(String id, String name, double salary, String department) {
         this.id = id;
@@ -19,12 +29,17 @@ class Employee {
         return id;
     }
     
+    public String getName() {
+        return name;
+    }
+    
     public double getSalary() {
         return salary;
     }
     
-    public void setSalary(double salary) {
-        this.salary = salary;
+    // Method to get a copy of this employee with a different salary
+    public Employee withSalary(double salary) {
+        return new Employee(id, name, salary, department);
     }
     
     public String getDepartment() {
@@ -43,22 +58,688 @@ class Employee {
     
     // Method to create employee object from file data
     public static Employee fromFileString(String line) {
-        String[] parts = line.split(",");
-        return new Employee(parts[0], parts[1], Double.parseDouble(parts[2]), parts[3]);
+        // Parse ID from the front and salary, department from the back so names may contain commas
+        int first = line.indexOf(',');
+        int last = line.lastIndexOf(',');
+        int salaryStart = line.lastIndexOf(',', last - 1);
+        return new Employee(line.substring(0, first), line.substring(first + 1, salaryStart),
+                            Double.parseDouble(line.substring(salaryStart + 1, last)), line.substring(last + 1));
+    }
+}
+
+// Fixed-layout binary snapshot of employees, read through memory-mapped buffers
+class EmployeeRecordFile {
+    public static final int MAX_ID_LENGTH = 32;
+    public static final int MAX_NAME_LENGTH = 64;
+    public static final int MAX_DEPT_LENGTH = 32;
+    
+    // Version 2 adds the log generation to the header; version 1 files are still read as generation 0
+    private static final int MAGIC = 0x454D5032;
+    private static final int LEGACY_MAGIC = 0x454D5031;
+    private static final int HEADER_SIZE = 16;
+    private static final int LEGACY_HEADER_SIZE = 8;
+    // Each text field is a char count followed by a fixed number of chars
+    private static final int ID_OFFSET = 0;
+    private static final int NAME_OFFSET = ID_OFFSET + 2 + 2 * MAX_ID_LENGTH;
+    private static final int SALARY_OFFSET = NAME_OFFSET + 2 + 2 * MAX_NAME_LENGTH;
+    private static final int DEPT_OFFSET = SALARY_OFFSET + 8;
+    private static final int RECORD_SIZE = DEPT_OFFSET + 2 + 2 * MAX_DEPT_LENGTH;
+    // A single mapping is limited to 2 GB, so large files are mapped in regions
+    private static final int RECORDS_PER_REGION = Integer.MAX_VALUE / RECORD_SIZE;
+    
+    private MappedByteBuffer[] regions;
+    private int count;
+    private long logGeneration;
+    
+    private EmployeeRecordFile(MappedByteBuffer[] regions, int count, long logGeneration) {
+        this.regions = regions;
+        this.count = count;
+        this.logGeneration = logGeneration;
+    }
+    
+    // Method to write all employees to a new snapshot, replacing the old one atomically
+    // Only the log with the given generation is replayed on top of it; older logs are already included
+    public static void write(String filename, Collection<Employee> employees, long logGeneration) throws IOException {
+        File tmp = new File(filename + ".tmp");
+        int total = employees.size();
+        
+        try(RandomAccessFile file = new RandomAccessFile(tmp, "rw");
+            FileChannel channel = file.getChannel()) {
+            file.setLength(HEADER_SIZE + (long) total * RECORD_SIZE);
+            
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(0, MAGIC);
+            header.putInt(4, total);
+            header.putLong(8, logGeneration);
+            header.force();
+            
+            Iterator<Employee> it = employees.iterator();
+            for(int start = 0; start < total; start += RECORDS_PER_REGION) {
+                int n = Math.min(RECORDS_PER_REGION, total - start);
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_SIZE + (long) start * RECORD_SIZE, (long) n * RECORD_SIZE);
+                for(int i = 0; i < n; i++) {
+                    Employee emp = it.next();
+                    int pos = i * RECORD_SIZE;
+                    putString(buf, pos + ID_OFFSET, emp.getId(), MAX_ID_LENGTH);
+                    putString(buf, pos + NAME_OFFSET, emp.getName(), MAX_NAME_LENGTH);
+                    buf.putDouble(pos + SALARY_OFFSET, emp.getSalary());
+                    putString(buf, pos + DEPT_OFFSET, emp.getDepartment(), MAX_DEPT_LENGTH);
+                }
+                buf.force();
+            }
+        }
+        Files.move(tmp.toPath(), Paths.get(filename),
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    // Method to map an existing snapshot for reading
+    public static EmployeeRecordFile open(String filename) throws IOException {
+        try(RandomAccessFile file = new RandomAccessFile(filename, "r");
+            FileChannel channel = file.getChannel()) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, LEGACY_HEADER_SIZE);
+            int headerSize;
+            if(header.getInt(0) == MAGIC) {
+                headerSize = HEADER_SIZE;
+            } else if(header.getInt(0) == LEGACY_MAGIC) {
+                headerSize = LEGACY_HEADER_SIZE;
+            } else {
+                throw new IOException("Not an employee record file: " + filename);
+            }
+            int count = header.getInt(4);
+            if(channel.size() < headerSize + (long) count * RECORD_SIZE) {
+                throw new IOException("Employee record file is truncated: " + filename);
+            }
+            long logGeneration = 0;
+            if(headerSize == HEADER_SIZE) {
+                logGeneration = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).getLong(8);
+            }
+            
+            // Mappings stay valid after the channel is closed
+            MappedByteBuffer[] regions = new MappedByteBuffer[(count + RECORDS_PER_REGION - 1) / RECORDS_PER_REGION];
+            for(int r = 0; r < regions.length; r++) {
+                int n = Math.min(RECORDS_PER_REGION, count - r * RECORDS_PER_REGION);
+                regions[r] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    headerSize + (long) r * RECORDS_PER_REGION * RECORD_SIZE, (long) n * RECORD_SIZE);
+            }
+            return new EmployeeRecordFile(regions, count, logGeneration);
+        }
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    public long getLogGeneration() {
+        return logGeneration;
+    }
+    
+    // Method to decode the record at the given position
+    public Employee read(int recordNo) {
+        MappedByteBuffer buf = regions[recordNo / RECORDS_PER_REGION];
+        int pos = (recordNo % RECORDS_PER_REGION) * RECORD_SIZE;
+        return new Employee(getString(buf, pos + ID_OFFSET),
+                            getString(buf, pos + NAME_OFFSET),
+                            buf.getDouble(pos + SALARY_OFFSET),
+                            getString(buf, pos + DEPT_OFFSET));
+    }
+    
+    // Method to decode every record into the given map; returns the number of threads used
+    public int loadInto(Map<String, Employee> employees) {
+        // Absolute reads do not move the buffer position, so ranges of records can be decoded in parallel;
+        // small files are decoded on the calling thread alone
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), count / 10000));
+        Employee[] decoded = new Employee[count];
+        IntStream.range(0, threads).parallel().forEach(k -> {
+            int end = (int) ((long) count * (k + 1) / threads);
+            for(int i = (int) ((long) count * k / threads); i < end; i++) {
+                decoded[i] = read(i);
+            }
+        });
+        for(Employee emp : decoded) {
+            employees.put(emp.getId(), emp);
+        }
+        return threads;
+    }
+    
+    // Method to check that a value fits in its fixed-size field
+    public static boolean fits(String value, int maxLength) {
+        return value.length() <= maxLength;
+    }
+    
+    private static void putString(MappedByteBuffer buf, int pos, String value, int maxLength) throws IOException {
+        if(value.length() > maxLength) {
+            throw new IOException("Value longer than " + maxLength + " characters: " + value);
+        }
+        buf.putShort(pos, (short) value.length());
+        for(int i = 0; i < value.length(); i++) {
+            buf.putChar(pos + 2 + 2 * i, value.charAt(i));
+        }
+    }
+    
+    private static String getString(MappedByteBuffer buf, int pos) {
+        char[] chars = new char[buf.getShort(pos)];
+        for(int i = 0; i < chars.length; i++) {
+            chars[i] = buf.getChar(pos + 2 + 2 * i);
+        }
+        return new String(chars);
+    }
+}
+
+// Append-only change log; each mutation is one line instead of a full file rewrite
+// The first line, G,<generation>, ties the log to the snapshot it applies to
+class EmployeeLog {
+    // When appended records are forced to disk, from most to least durable
+    enum SyncPolicy { EVERY_WRITE, GROUP_COMMIT, INTERVAL, WRITE_BEHIND }
+    
+    private static final String STOP = new String("STOP");
+    // Header line: G,generation,format. Format 2 escapes the fields of each record;
+    // logs written before it have plain comma-joined records and no format field
+    private static final int FORMAT = 2;
+    
+    private String filename;
+    private long generation;
+    private SyncPolicy policy;
+    private int groupSize;
+    private long intervalMillis;
+    private FileOutputStream out;
+    private BufferedWriter writer;
+    private Timer syncTimer;
+    private int unsynced = 0;
+    private int recordCount = 0;
+    private boolean closed = false;
+    
+    // Write-behind mode: records queued by callers and written in batches by a background thread
+    private BlockingQueue<String> queue;
+    private Thread writerThread;
+    private Thread shutdownHook;
+    private int pending = 0;
+    // First failed batch write; records after it may be missing, so every later sync reports it
+    private IOException writeError;
+    
+    public EmployeeLog(String filename, long generation, SyncPolicy policy, int groupSize, long intervalMillis) throws IOException {
+        this.filename = filename;
+        this.generation = generation;
+        this.policy = policy;
+        this.groupSize = groupSize;
+        this.intervalMillis = intervalMillis;
+        // A log left from an older snapshot was skipped by replay, so it is replaced rather than extended
+        open(readGeneration(filename) == generation);
+        
+        if(policy == SyncPolicy.INTERVAL) {
+            syncTimer = new Timer("employee-log-sync", true);
+            syncTimer.scheduleAtFixedRate(new TimerTask() {
+                public void run() {
+                    try {
+                        sync();
+                    } catch(IOException e) {
+                        System.out.println("Error syncing log: " + e.getMessage());
+                    }
+                }
+            }, intervalMillis, intervalMillis);
+        } else if(policy == SyncPolicy.WRITE_BEHIND) {
+            queue = new LinkedBlockingQueue<>(100000);
+            writerThread = new Thread(this::writeBehindLoop, "employee-log-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+            
+            // Queued records are written out even if the program exits without calling close
+            shutdownHook = new Thread(() -> {
+                try {
+                    close();
+                } catch(IOException e) {
+                    System.out.println("Error closing log: " + e.getMessage());
+                }
+            });
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+    }
+    
+    private void open(boolean append) throws IOException {
+        out = new FileOutputStream(filename, append);
+        writer = new BufferedWriter(new OutputStreamWriter(out));
+        if(!append) {
+            writer.write("G," + generation + "," + FORMAT);
+            writer.newLine();
+            writer.flush();
+            out.getFD().sync();
+        }
+    }
+    
+    // Method to append one record built by record(): A,id,name,salary,dept / U,id,salary / D,id
+    public void append(String record) throws IOException {
+        if(policy == SyncPolicy.WRITE_BEHIND) {
+            synchronized(this) {
+                if(closed) {
+                    throw new IOException("Log is closed");
+                }
+                checkWriteError();
+                recordCount++;
+                pending++;
+            }
+            try {
+                // Blocks when the writer falls far behind, so memory stays bounded
+                queue.put(record);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while queueing log record");
+            }
+            return;
+        }
+        
+        synchronized(this) {
+            writer.write(record);
+            writer.newLine();
+            // Always hand the record to the OS; fsync frequency depends on the policy
+            writer.flush();
+            recordCount++;
+            unsynced++;
+            
+            if(policy == SyncPolicy.EVERY_WRITE || (policy == SyncPolicy.GROUP_COMMIT && unsynced >= groupSize)) {
+                sync();
+            }
+        }
+    }
+    
+    // Background writer: collects up to groupSize records or whatever arrives within intervalMillis
+    private void writeBehindLoop() {
+        List<String> batch = new ArrayList<>(groupSize);
+        boolean stopping = false;
+        while(!stopping) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + intervalMillis * 1000000L;
+                while(batch.size() < groupSize && batch.get(batch.size() - 1) != STOP) {
+                    String next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if(next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch(InterruptedException e) {
+                stopping = true;
+            }
+            
+            Iterator<String> it = batch.iterator();
+            while(it.hasNext()) {
+                if(it.next() == STOP) {
+                    it.remove();
+                    stopping = true;
+                }
+            }
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+    
+    // Method to write a batch with one flush and one fsync
+    private synchronized void writeBatch(List<String> batch) {
+        if(batch.isEmpty()) {
+            return;
+        }
+        try {
+            for(String record : batch) {
+                writer.write(record);
+                writer.newLine();
+            }
+            writer.flush();
+            out.getFD().sync();
+        } catch(IOException e) {
+            if(writeError == null) {
+                writeError = e;
+            }
+            System.out.println("Error saving to file: " + e.getMessage());
+        }
+        pending -= batch.size();
+        notifyAll();
+    }
+    
+    // Method to wait until every queued record has been written; releases the lock while waiting
+    private synchronized void awaitWritten() throws IOException {
+        while(pending > 0 && writerThread.isAlive()) {
+            try {
+                wait(100);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while flushing log");
+            }
+        }
+        if(pending > 0 && writeError == null) {
+            writeError = new IOException("Log writer stopped with " + pending + " records unwritten");
+        }
+        checkWriteError();
+    }
+    
+    // Method to fail once a background write has failed, so no caller treats lost records as durable
+    private synchronized void checkWriteError() throws IOException {
+        if(writeError != null) {
+            throw new IOException("Log write failed: " + writeError.getMessage(), writeError);
+        }
+    }
+    
+    // Method to force appended records to disk
+    public synchronized void sync() throws IOException {
+        if(policy == SyncPolicy.WRITE_BEHIND) {
+            awaitWritten();
+            return;
+        }
+        if(unsynced == 0) {
+            return;
+        }
+        writer.flush();
+        out.getFD().sync();
+        unsynced = 0;
+    }
+    
+    public synchronized long getGeneration() {
+        return generation;
+    }
+    
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+    
+    public synchronized void setRecordCount(int recordCount) {
+        this.recordCount = recordCount;
+    }
+    
+    // Method to empty the log once its records are in a snapshot, starting the snapshot's generation
+    public synchronized void truncate(long newGeneration) throws IOException {
+        if(policy == SyncPolicy.WRITE_BEHIND) {
+            // Queued records are already in the snapshot, but must not land in the new log out of order
+            awaitWritten();
+        }
+        writer.close();
+        generation = newGeneration;
+        open(false);
+        recordCount = 0;
+        unsynced = 0;
+    }
+    
+    public void close() throws IOException {
+        synchronized(this) {
+            if(closed) {
+                return;
+            }
+            closed = true;
+        }
+        if(syncTimer != null) {
+            syncTimer.cancel();
+        }
+        if(writerThread != null) {
+            try {
+                queue.put(STOP);
+                writerThread.join();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch(IllegalStateException e) {
+                // Already running as the shutdown hook
+            }
+        }
+        synchronized(this) {
+            try {
+                sync();
+            } finally {
+                writer.close();
+            }
+        }
+    }
+    
+    // Method to build a log record, escaping backslashes, commas and line breaks inside the fields
+    // so an ID, name or department may contain any character
+    public static String record(char type, String... fields) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(type);
+        for(String field : fields) {
+            sb.append(',');
+            for(int i = 0; i < field.length(); i++) {
+                char c = field.charAt(i);
+                if(c == '\\' || c == ',') {
+                    sb.append('\\').append(c);
+                } else if(c == '\n') {
+                    sb.append("\\n");
+                } else if(c == '\r') {
+                    sb.append("\\r");
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+    
+    // Method to split a record written by record() back into its type and fields
+    private static List<String> splitRecord(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for(int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if(c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if(c != '\\') {
+                field.append(c);
+            } else if(++i == line.length()) {
+                throw new IllegalArgumentException("Record ends inside an escape");
+            } else {
+                char escaped = line.charAt(i);
+                field.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    // Method to read {generation, format} from the header of a log file
+    // Returns null if there is no readable log, and {0, 1} for a log without a header
+    private static long[] readHeader(String filename) {
+        try(BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String first = reader.readLine();
+            if(first == null) {
+                return null;
+            }
+            if(!first.startsWith("G,")) {
+                return new long[] { 0, 1 };
+            }
+            String[] parts = first.split(",");
+            return new long[] { Long.parseLong(parts[1]), parts.length > 2 ? Long.parseLong(parts[2]) : 1 };
+        } catch(IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    // Method to read the generation of a log file: -1 if there is none, 0 for a log without a header
+    public static long readGeneration(String filename) {
+        long[] header = readHeader(filename);
+        return header == null ? -1 : header[0];
+    }
+    
+    // Method to check whether the log replayed on top of a snapshot has unescaped records
+    // New records must not be appended to it, so its contents have to go into a new snapshot first
+    public static boolean isOldFormat(String filename, long generation) {
+        long[] header = readHeader(filename);
+        return header != null && header[0] == generation && header[1] < FORMAT;
+    }
+    
+    // Method to apply logged changes on top of the snapshot with the given generation; returns the number replayed
+    // Only the last record may be cut short by a crash; a bad record before it means the log is damaged
+    public static int replay(String filename, long generation, Map<String, Employee> employees) throws IOException {
+        long[] header = readHeader(filename);
+        if(header == null) {
+            return 0;
+        }
+        if(header[0] != generation) {
+            // Left behind by a crash between writing a snapshot and emptying the log; the snapshot already has it
+            System.out.println("Skipping log from an earlier snapshot");
+            return 0;
+        }
+        boolean escaped = header[1] >= FORMAT;
+        int count = 0;
+        try(BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line = reader.readLine();
+            int lineNumber = 1;
+            if(line.startsWith("G,")) {
+                line = reader.readLine();
+                lineNumber++;
+            }
+            while(line != null) {
+                String next = reader.readLine();
+                try {
+                    if(escaped) {
+                        applyRecord(splitRecord(line), employees);
+                    } else {
+                        applyOldRecord(line, employees);
+                    }
+                } catch(RuntimeException e) {
+                    if(next != null) {
+                        throw new IOException("Damaged record at line " + lineNumber + " of " + filename);
+                    }
+                    // A torn record can only be the last write before a crash
+                    System.out.println("Ignoring incomplete log record");
+                    break;
+                }
+                count++;
+                line = next;
+                lineNumber++;
+            }
+        }
+        return count;
+    }
+    
+    private static void applyRecord(List<String> fields, Map<String, Employee> employees) {
+        String type = fields.get(0);
+        if(type.equals("A") && fields.size() == 5) {
+            Employee emp = new Employee(fields.get(1), fields.get(2), Double.parseDouble(fields.get(3)), fields.get(4));
+            employees.put(emp.getId(), emp);
+        } else if(type.equals("U") && fields.size() == 3) {
+            Employee emp = employees.get(fields.get(1));
+            if(emp != null) {
+                employees.put(emp.getId(), emp.withSalary(Double.parseDouble(fields.get(2))));
+            }
+        } else if(type.equals("D") && fields.size() == 2) {
+            employees.remove(fields.get(1));
+        } else {
+            throw new IllegalArgumentException("Unknown log record");
+        }
+    }
+    
+    // Records from logs written before format 2, with fields joined by plain commas
+    private static void applyOldRecord(String line, Map<String, Employee> employees) {
+        char type = line.charAt(0);
+        String data = line.substring(2);
+        if(type == 'A') {
+            Employee emp = Employee.fromFileString(data);
+            employees.put(emp.getId(), emp);
+        } else if(type == 'U') {
+            String[] parts = data.split(",");
+            Employee emp = employees.get(parts[0]);
+            if(emp != null) {
+                employees.put(emp.getId(), emp.withSalary(Double.parseDouble(parts[1])));
+            }
+        } else if(type == 'D') {
+            employees.remove(data);
+        } else {
+            throw new IllegalArgumentException("Unknown log record");
+        }
     }
 }
 
-// Class to manage all employee operations
+// Class to manage all employee operations; safe to use from many threads at once
 class EmployeeManagement {
-    private HashMap<String, Employee> employees;
-    private String filename = "employees.txt";
+    private ConcurrentHashMap<String, Employee> employees;
+    // Secondary indexes kept in step with the employees map
+    private ConcurrentSkipListMap<String, Employee> idIndex = new ConcurrentSkipListMap<>();
+    private ConcurrentSkipListSet<Employee> salaryIndex = new ConcurrentSkipListSet<>(
+        Comparator.comparingDouble(Employee::getSalary).thenComparing(Employee::getId));
+    private ConcurrentHashMap<String, Set<String>> departmentIndex = new ConcurrentHashMap<>();
+    // Writes to the same ID are serialized by one of these locks; reads take no lock
+    private Object[] stripes = new Object[64];
+    // Mutations share this lock; compaction takes it exclusively so no logged change is lost
+    private ReentrantReadWriteLock compactionLock = new ReentrantReadWriteLock();
+    // Held for writing while a bulk raise publishes its new salaries; reads validate against it instead of locking
+    private StampedLock raiseLock = new StampedLock();
+    private String filename = "employees.dat";
+    private String legacyFilename = "employees.txt";
+    private String logFilename = "employees.log";
+    private volatile EmployeeLog log;
+    // Generation of the current snapshot; only the log with the same generation is replayed on top of it
+    private long generation = 0;
+    private int compactThreshold = 10000;
+    private EmployeeLog.SyncPolicy syncPolicy;
+    private volatile boolean loaded = false;
     private String username = "admin";
     private String password = "admin123";
     
     // Constructor to initialize and load data from file
     public EmployeeManagement() {
-        employees = new HashMap<>();
-        loadFromFile();
+        this(EmployeeLog.SyncPolicy.GROUP_COMMIT, false);
+    }
+    
+    // Constructor to choose the log sync policy and whether loading waits until first use
+    public EmployeeManagement(EmployeeLog.SyncPolicy syncPolicy, boolean lazyLoad) {
+        this(".", syncPolicy, lazyLoad);
+    }
+    
+    // Constructor to keep the data files in a directory other than the current one
+    public EmployeeManagement(String dataDir, EmployeeLog.SyncPolicy syncPolicy, boolean lazyLoad) {
+        this.filename = new File(dataDir, filename).getPath();
+        this.legacyFilename = new File(dataDir, legacyFilename).getPath();
+        this.logFilename = new File(dataDir, logFilename).getPath();
+        this.syncPolicy = syncPolicy;
+        employees = new ConcurrentHashMap<>();
+        for(int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+        if(!lazyLoad) {
+            ensureLoaded();
+        }
+    }
+    
+    // Method to load the snapshot and replay the log the first time data is needed
+    private void ensureLoaded() {
+        if(!loaded) {
+            synchronized(this) {
+                if(!loaded) {
+                    load();
+                    loaded = true;
+                }
+            }
+        }
+    }
+    
+    // Throws UncheckedIOException if the log is damaged, so nothing is saved over data that could not be read
+    private void load() {
+        long start = System.nanoTime();
+        int threads = loadFromFile();
+        
+        // Recovery: snapshot first, then every change logged after it
+        int replayed;
+        try {
+            replayed = EmployeeLog.replay(logFilename, generation, employees);
+            if(EmployeeLog.isOldFormat(logFilename, generation)) {
+                // Move the old log's records into a snapshot, so the log below starts empty in the new format
+                writeSnapshot();
+                replayed = 0;
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException("Cannot load employee data: " + e.getMessage(), e);
+        }
+        try {
+            log = openLog();
+            log.setRecordCount(replayed);
+        } catch(IOException e) {
+            System.out.println("Error opening log: " + e.getMessage());
+        }
+        
+        for(Employee emp : employees.values()) {
+            addToIndexes(emp);
+        }
+        
+        System.out.printf("Loaded %d employees (%d log records) in %.1f ms using %d threads%n",
+                          employees.size(), replayed, (System.nanoTime() - start) / 1e6, threads);
     }
     
     // Method to validate login credentials
@@ -68,6 +749,7 @@ class EmployeeManagement {
     
     // Method to add new employee with validation
     public void addEmployee(Scanner sc) {
+        ensureLoaded();
         try {
             System.out.print("Enter Employee ID: ");
             String id = sc.nextLine();
@@ -78,15 +760,25 @@ class EmployeeManagement {
                 return;
             }
             
+            if(id.isEmpty() || !EmployeeRecordFile.fits(id, EmployeeRecordFile.MAX_ID_LENGTH)) {
+                System.out.println("Employee ID must be 1 to " + EmployeeRecordFile.MAX_ID_LENGTH + " characters");
+                return;
+            }
+            
             System.out.print("Enter Name: ");
             String name = sc.nextLine();
             
+            if(!EmployeeRecordFile.fits(name, EmployeeRecordFile.MAX_NAME_LENGTH)) {
+                System.out.println("Name cannot exceed " + EmployeeRecordFile.MAX_NAME_LENGTH + " characters");
+                return;
+            }
+            
             System.out.print("Enter Salary: ");
             double salary = sc.nextDouble();
             sc.nextLine();
             
-            if(salary <= 0) {
-                System.out.println("Salary must be positive");
+            if(!Double.isFinite(salary) || salary <= 0) {
+                System.out.println("Salary must be a positive number");
                 return;
             }
             
@@ -99,32 +791,215 @@ class EmployeeManagement {
                 return;
             }
             
-            employees.put(id, new Employee(id, name, salary, dept));
-            saveToFile();
-            System.out.println("Employee added successfully");
+            if(!EmployeeRecordFile.fits(dept, EmployeeRecordFile.MAX_DEPT_LENGTH)) {
+                System.out.println("Department cannot exceed " + EmployeeRecordFile.MAX_DEPT_LENGTH + " characters");
+                return;
+            }
+            
+            if(addEmployee(new Employee(id, name, salary, dept))) {
+                System.out.println("Employee added successfully");
+            } else {
+                System.out.println("Employee ID must be unique");
+            }
         } catch(Exception e) {
             System.out.println("Error: Invalid input");
             sc.nextLine();
         }
     }
     
+    // Method to get an employee by ID without locking
+    public Employee getEmployee(String id) {
+        ensureLoaded();
+        return readConsistent(() -> employees.get(id));
+    }
+    
+    // Method to add an employee; returns false if the ID is already taken
+    public boolean addEmployee(Employee emp) {
+        ensureLoaded();
+        compactionLock.readLock().lock();
+        try {
+            synchronized(stripeFor(emp.getId())) {
+                // Atomic check-and-add: only one of several concurrent adds of an ID wins
+                if(employees.putIfAbsent(emp.getId(), emp) != null) {
+                    return false;
+                }
+                addToIndexes(emp);
+                logChange(EmployeeLog.record('A', emp.getId(), emp.getName(), String.valueOf(emp.getSalary()),
+                                             emp.getDepartment()));
+            }
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+        compactIfNeeded();
+        return true;
+    }
+    
+    // Method to change an employee's salary; returns false if the ID does not exist
+    public boolean updateSalary(String id, double salary) {
+        ensureLoaded();
+        compactionLock.readLock().lock();
+        try {
+            synchronized(stripeFor(id)) {
+                Employee old = employees.get(id);
+                if(old == null) {
+                    return false;
+                }
+                Employee updated = old.withSalary(salary);
+                employees.put(id, updated);
+                idIndex.put(id, updated);
+                salaryIndex.remove(old);
+                salaryIndex.add(updated);
+                logChange(EmployeeLog.record('U', id, String.valueOf(salary)));
+            }
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+        compactIfNeeded();
+        return true;
+    }
+    
+    // Method to delete an employee; returns false if the ID does not exist
+    public boolean deleteEmployee(String id) {
+        ensureLoaded();
+        compactionLock.readLock().lock();
+        try {
+            synchronized(stripeFor(id)) {
+                Employee removed = employees.remove(id);
+                if(removed == null) {
+                    return false;
+                }
+                removeFromIndexes(removed);
+                logChange(EmployeeLog.record('D', id));
+            }
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+        compactIfNeeded();
+        return true;
+    }
+    
+    // Method to raise the salary of every employee in a department by a percentage
+    public int applyDepartmentRaise(String dept, double percent) {
+        ensureLoaded();
+        compactionLock.writeLock().lock();
+        try {
+            return applyRaise(getEmployeesInDepartment(dept), percent);
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+    
+    // Method to raise the salary of every employee matching a condition by a percentage
+    public int applyRaise(Predicate<Employee> filter, double percent) {
+        ensureLoaded();
+        compactionLock.writeLock().lock();
+        try {
+            List<Employee> matching = employees.values().parallelStream()
+                .filter(filter)
+                .collect(Collectors.toList());
+            return applyRaise(matching, percent);
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+    
+    // Caller holds the write lock, so no other change can interleave with the revision
+    private int applyRaise(List<Employee> before, double percent) {
+        double factor = 1 + percent / 100;
+        List<Employee> after = before.parallelStream()
+            .map(emp -> emp.withSalary(Math.round(emp.getSalary() * factor * 100) / 100.0))
+            .collect(Collectors.toList());
+        
+        replaceEmployees(after);
+        try {
+            // One snapshot instead of one log record per employee; it starts a new log generation,
+            // so records logged before the raise are never replayed on top of it
+            writeSnapshot();
+        } catch(IOException e) {
+            // The old snapshot was not replaced, so put the old salaries back
+            replaceEmployees(before);
+            System.out.println("Error saving to file: " + e.getMessage());
+            return 0;
+        }
+        try {
+            resetLog();
+        } catch(IOException e) {
+            // The raise is saved; only the old log could not be emptied
+            System.out.println("Error saving to file: " + e.getMessage());
+        }
+        return after.size();
+    }
+    
+    // Readers wait until every new salary is in the map and the indexes, so none sees a raise half applied
+    private void replaceEmployees(List<Employee> updated) {
+        long stamp = raiseLock.writeLock();
+        try {
+            updated.parallelStream().forEach(emp -> {
+                Employee old = employees.put(emp.getId(), emp);
+                idIndex.put(emp.getId(), emp);
+                if(old != null) {
+                    salaryIndex.remove(old);
+                }
+                salaryIndex.add(emp);
+            });
+        } finally {
+            raiseLock.unlockWrite(stamp);
+        }
+    }
+    
+    // Method to run a read without locking, repeating it under the read lock if a raise was published meanwhile
+    private <T> T readConsistent(Supplier<T> read) {
+        long stamp = raiseLock.tryOptimisticRead();
+        T result = read.get();
+        if(raiseLock.validate(stamp)) {
+            return result;
+        }
+        stamp = raiseLock.readLock();
+        try {
+            return read.get();
+        } finally {
+            raiseLock.unlockRead(stamp);
+        }
+    }
+    
+    // Method to get all employees ordered by ID
+    public Collection<Employee> getEmployeesSortedById() {
+        ensureLoaded();
+        return Collections.unmodifiableList(readConsistent(() -> new ArrayList<>(idIndex.values())));
+    }
+    
+    // Method to get the names of all departments that have employees
+    public Set<String> getDepartments() {
+        ensureLoaded();
+        return Collections.unmodifiableSet(departmentIndex.keySet());
+    }
+    
+    private Object stripeFor(String id) {
+        return stripes[(id.hashCode() & 0x7fffffff) % stripes.length];
+    }
+    
     // Method to display all employees
     public void displayAll() {
+        ensureLoaded();
         if(employees.isEmpty()) {
             System.out.println("No employees found");
             return;
         }
-        for(Employee emp : employees.values()) {
-            System.out.println(emp);
+        List<Employee> listing = readConsistent(() -> new ArrayList<>(employees.values()));
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
+        for(Employee emp : listing) {
+            out.println(emp);
         }
+        out.flush();
     }
     
     // Method to search employee by ID
     public void searchById(Scanner sc) {
+        ensureLoaded();
         System.out.print("Enter Employee ID: ");
         String id = sc.nextLine();
         
-        Employee emp = employees.get(id);
+        Employee emp = getEmployee(id);
         if(emp != null) {
             System.out.println("Found: " + emp);
         } else {
@@ -134,6 +1009,7 @@ class EmployeeManagement {
     
     // Method to update employee salary
     public void updateSalary(Scanner sc) {
+        ensureLoaded();
         try {
             System.out.print("Enter Employee ID: ");
             String id = sc.nextLine();
@@ -148,14 +1024,16 @@ class EmployeeManagement {
             double salary = sc.nextDouble();
             sc.nextLine();
             
-            if(salary <= 0) {
-                System.out.println("Salary must be positive");
+            if(!Double.isFinite(salary) || salary <= 0) {
+                System.out.println("Salary must be a positive number");
                 return;
             }
             
-            emp.setSalary(salary);
-            saveToFile();
-            System.out.println("Salary updated successfully");
+            if(updateSalary(id, salary)) {
+                System.out.println("Salary updated successfully");
+            } else {
+                System.out.println("Employee not found");
+            }
         } catch(Exception e) {
             System.out.println("Error: Invalid input");
             sc.nextLine();
@@ -164,11 +1042,11 @@ class EmployeeManagement {
     
     // Method to delete employee by ID
     public void deleteEmployee(Scanner sc) {
+        ensureLoaded();
         System.out.print("Enter Employee ID: ");
         String id = sc.nextLine();
         
-        if(employees.remove(id) != null) {
-            saveToFile();
+        if(deleteEmployee(id)) {
             System.out.println("Employee deleted successfully");
         } else {
             System.out.println("Employee not found");
@@ -177,61 +1055,361 @@ class EmployeeManagement {
     
     // Method to display employees sorted by ID
     public void displaySorted() {
+        ensureLoaded();
         if(employees.isEmpty()) {
             System.out.println("No employees found");
             return;
         }
         
-        List<Employee> empList = new ArrayList<>(employees.values());
-        Collections.sort(empList, (e1, e2) -> e1.getId().compareTo(e2.getId()));
-        
-        System.out.println("Employees sorted by ID:");
-        for(Employee emp : empList) {
-            System.out.println(emp);
+        Collection<Employee> sorted = getEmployeesSortedById();
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
+        out.println("Employees sorted by ID:");
+        for(Employee emp : sorted) {
+            out.println(emp);
         }
+        out.flush();
     }
     
     // Method to display all unique departments
     public void displayDepartments() {
+        ensureLoaded();
         if(employees.isEmpty()) {
             System.out.println("No employees found");
             return;
         }
         
-        Set<String> departments = new HashSet<>();
-        for(Employee emp : employees.values()) {
-            departments.add(emp.getDepartment());
-        }
-        
         System.out.println("Departments:");
-        for(String dept : departments) {
+        for(String dept : departmentIndex.keySet()) {
             System.out.println("- " + dept);
         }
     }
     
-    // Method to save all employees to file using BufferedWriter
-    private void saveToFile() {
-        try(BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-            for(Employee emp : employees.values()) {
-                writer.write(emp.toFileString());
-                writer.newLine();
+    // Method to display employees of one department
+    public void displayByDepartment(Scanner sc) {
+        ensureLoaded();
+        System.out.print("Enter Department: ");
+        String dept = sc.nextLine();
+        
+        List<Employee> result = getEmployeesInDepartment(dept);
+        if(result.isEmpty()) {
+            System.out.println("No employees found");
+            return;
+        }
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
+        for(Employee emp : result) {
+            out.println(emp);
+        }
+        out.flush();
+    }
+    
+    // Method to display employees with salary in a given range
+    public void displaySalaryRange(Scanner sc) {
+        ensureLoaded();
+        try {
+            System.out.print("Enter minimum salary: ");
+            double min = sc.nextDouble();
+            System.out.print("Enter maximum salary: ");
+            double max = sc.nextDouble();
+            sc.nextLine();
+            
+            List<Employee> result = getEmployeesBySalary(min, max);
+            if(result.isEmpty()) {
+                System.out.println("No employees found");
+                return;
+            }
+            PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
+            for(Employee emp : result) {
+                out.println(emp);
             }
+            out.flush();
+        } catch(Exception e) {
+            System.out.println("Error: Invalid input");
+            sc.nextLine();
+        }
+    }
+    
+    // Method to apply a percentage raise to a whole department
+    public void bulkRaise(Scanner sc) {
+        ensureLoaded();
+        try {
+            System.out.print("Enter Department: ");
+            String dept = sc.nextLine();
+            System.out.print("Enter raise percentage: ");
+            double percent = sc.nextDouble();
+            sc.nextLine();
+            
+            if(!Double.isFinite(percent) || percent <= -100) {
+                System.out.println("Raise must be greater than -100%");
+                return;
+            }
+            
+            long start = System.nanoTime();
+            int count = applyDepartmentRaise(dept, percent);
+            System.out.printf("Updated %d salaries in %.1f ms%n", count, (System.nanoTime() - start) / 1e6);
+        } catch(Exception e) {
+            System.out.println("Error: Invalid input");
+            sc.nextLine();
+        }
+    }
+    
+    // Method to get employees in a department from the department index
+    public List<Employee> getEmployeesInDepartment(String dept) {
+        ensureLoaded();
+        return readConsistent(() -> {
+            List<Employee> result = new ArrayList<>();
+            Set<String> ids = departmentIndex.get(dept);
+            if(ids != null) {
+                for(String id : ids) {
+                    // Skip an ID deleted while we were reading
+                    Employee emp = employees.get(id);
+                    if(emp != null) {
+                        result.add(emp);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+    
+    // Method to get employees with min <= salary <= max, ordered by salary, in O(log n + k)
+    public List<Employee> getEmployeesBySalary(double min, double max) {
+        ensureLoaded();
+        if(min > max) {
+            return new ArrayList<>();
+        }
+        // Probe keys use an empty ID, which sorts before every real ID with the same salary
+        Employee from = new Employee("", "", min, "");
+        Employee to = new Employee("", "", Math.nextUp(max), "");
+        return readConsistent(() -> new ArrayList<>(salaryIndex.subSet(from, true, to, false)));
+    }
+    
+    // Method to check that the ID, salary and department indexes hold exactly the employees in the map
+    // Returns the first difference found, or null if they agree; only meaningful while no change is running
+    public String checkIndexes() {
+        ensureLoaded();
+        if(idIndex.size() != employees.size()) {
+            return "ID index has " + idIndex.size() + " entries for " + employees.size() + " employees";
+        }
+        if(salaryIndex.size() != employees.size()) {
+            return "Salary index has " + salaryIndex.size() + " entries for " + employees.size() + " employees";
+        }
+        int indexed = 0;
+        for(Map.Entry<String, Set<String>> entry : departmentIndex.entrySet()) {
+            for(String id : entry.getValue()) {
+                Employee emp = employees.get(id);
+                if(emp == null || !emp.getDepartment().equals(entry.getKey())) {
+                    return "Department index lists " + id + " under " + entry.getKey();
+                }
+                indexed++;
+            }
+        }
+        if(indexed != employees.size()) {
+            return "Department index has " + indexed + " entries for " + employees.size() + " employees";
+        }
+        for(Employee emp : employees.values()) {
+            if(idIndex.get(emp.getId()) != emp) {
+                return "ID index is out of date for " + emp.getId();
+            }
+            // The salary index orders by salary and ID, so this also checks the indexed salary
+            if(!salaryIndex.contains(emp)) {
+                return "Salary index is out of date for " + emp.getId();
+            }
+        }
+        return null;
+    }
+    
+    private void addToIndexes(Employee emp) {
+        idIndex.put(emp.getId(), emp);
+        salaryIndex.add(emp);
+        // compute runs atomically per department, so an emptied set is never removed under a concurrent add
+        departmentIndex.compute(emp.getDepartment(), (d, ids) -> {
+            if(ids == null) {
+                ids = ConcurrentHashMap.newKeySet();
+            }
+            ids.add(emp.getId());
+            return ids;
+        });
+    }
+    
+    private void removeFromIndexes(Employee emp) {
+        idIndex.remove(emp.getId());
+        salaryIndex.remove(emp);
+        departmentIndex.computeIfPresent(emp.getDepartment(), (d, ids) -> {
+            ids.remove(emp.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+    
+    // Method to record a change in the log
+    private void logChange(String record) {
+        if(log == null) {
+            return;
+        }
+        try {
+            log.append(record);
         } catch(IOException e) {
             System.out.println("Error saving to file: " + e.getMessage());
         }
     }
     
-    // Method to load employees from file using BufferedReader
-    private void loadFromFile() {
-        try(BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while((line = reader.readLine()) != null) {
-                Employee emp = Employee.fromFileString(line);
+    // Method to compact once the log grows too long
+    // Without a log the change is saved by a snapshot instead, which also tries to open a new log
+    private void compactIfNeeded() {
+        EmployeeLog current = log;
+        if(current != null && current.getRecordCount() < compactionPoint()) {
+            return;
+        }
+        compactionLock.writeLock().lock();
+        try {
+            if(log == null || log.getRecordCount() >= compactionPoint()) {
+                compact();
+            }
+        } catch(IOException e) {
+            System.out.println("Error saving to file: " + e.getMessage());
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+    
+    // Snapshot rewrites cost O(n), so let the log grow with the data to keep the cost per change constant
+    private int compactionPoint() {
+        return Math.max(compactThreshold, employees.size());
+    }
+    
+    // Method to write a fresh snapshot and empty the log; caller holds the write lock
+    private void compact() throws IOException {
+        writeSnapshot();
+        resetLog();
+    }
+    
+    // Method to write a snapshot for the next log generation; caller holds the write lock
+    private void writeSnapshot() throws IOException {
+        long next = generation + 1;
+        saveToFile(next);
+        generation = next;
+    }
+    
+    // Method to start an empty log for the current snapshot's generation; caller holds the write lock
+    private void resetLog() throws IOException {
+        EmployeeLog current = log;
+        if(current == null) {
+            // The snapshot just written holds every change, so a new log can start from it
+            log = openLog();
+            return;
+        }
+        try {
+            current.truncate(generation);
+        } catch(IOException e) {
+            // Records added to the old log would be skipped on recovery, so stop using it;
+            // until a new log opens, each change is saved as a full snapshot instead
+            log = null;
+            try {
+                current.close();
+            } catch(IOException closeError) {
+                // Already reporting the first error
+            }
+            throw e;
+        }
+    }
+    
+    // Method to open the log for the current generation; a log from an older generation is replaced
+    private EmployeeLog openLog() throws IOException {
+        if(syncPolicy == EmployeeLog.SyncPolicy.WRITE_BEHIND) {
+            // Batches of up to 1000 records, written at least every 100 ms
+            return new EmployeeLog(logFilename, generation, syncPolicy, 1000, 100);
+        }
+        return new EmployeeLog(logFilename, generation, syncPolicy, 32, 1000);
+    }
+    
+    // Method to compact and close the log on exit
+    public void shutdown() {
+        if(!loaded) {
+            // Nothing was read or changed, so the files on disk are already current
+            return;
+        }
+        compactionLock.writeLock().lock();
+        try {
+            compact();
+            if(log != null) {
+                log.close();
+            }
+        } catch(IOException e) {
+            System.out.println("Error saving to file: " + e.getMessage());
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+    
+    // Method to save all employees to the binary snapshot file
+    private void saveToFile(long logGeneration) throws IOException {
+        EmployeeRecordFile.write(filename, employees.values(), logGeneration);
+    }
+    
+    // Method to load employees from the binary snapshot, or the old text file if there is none yet
+    // Returns the number of threads used to decode the data
+    private int loadFromFile() {
+        if(new File(filename).exists()) {
+            try {
+                EmployeeRecordFile snapshot = EmployeeRecordFile.open(filename);
+                generation = snapshot.getLogGeneration();
+                return snapshot.loadInto(employees);
+            } catch(IOException e) {
+                System.out.println("Error loading data: " + e.getMessage());
+            }
+            return 1;
+        }
+        
+        try {
+            byte[] data = Files.readAllBytes(Paths.get(legacyFilename));
+            int chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), data.length / 65536));
+            for(Employee emp : parseTextParallel(data, chunks)) {
                 employees.put(emp.getId(), emp);
             }
+            return chunks;
         } catch(IOException e) {
             System.out.println("No existing data found");
         }
+        return 1;
+    }
+    
+    // Method to parse the text file in parallel chunks split at line boundaries, keeping file order
+    private static List<Employee> parseTextParallel(byte[] data, int chunks) {
+        int[] bounds = new int[chunks + 1];
+        bounds[chunks] = data.length;
+        for(int k = 1; k < chunks; k++) {
+            int pos = Math.max((int) ((long) data.length * k / chunks), bounds[k - 1]);
+            while(pos > 0 && pos < data.length && data[pos - 1] != '\n') {
+                pos++;
+            }
+            bounds[k] = pos;
+        }
+        
+        List<List<Employee>> parts = IntStream.range(0, chunks).parallel()
+            .mapToObj(k -> parseLines(new String(data, bounds[k], bounds[k + 1] - bounds[k], StandardCharsets.UTF_8)))
+            .collect(Collectors.toList());
+        
+        List<Employee> result = new ArrayList<>();
+        for(List<Employee> part : parts) {
+            result.addAll(part);
+        }
+        return result;
+    }
+    
+    private static List<Employee> parseLines(String chunk) {
+        List<Employee> result = new ArrayList<>();
+        int start = 0;
+        while(start < chunk.length()) {
+            int end = chunk.indexOf('\n', start);
+            if(end < 0) {
+                end = chunk.length();
+            }
+            String line = chunk.substring(start, end).trim();
+            if(!line.isEmpty()) {
+                result.add(Employee.fromFileString(line));
+            }
+            start = end + 1;
+        }
+        return result;
     }
 }
 
@@ -239,7 +1417,8 @@ class EmployeeManagement {
 public class EmployeeManagementSystem {
     public static void main(String[] args) {
         Scanner sc = new Scanner(System.in);
-        EmployeeManagement em = new EmployeeManagement();
+        // Data is loaded on the first menu action so the login prompt appears immediately
+        EmployeeManagement em = new EmployeeManagement(EmployeeLog.SyncPolicy.GROUP_COMMIT, true);
         
         // Login system for security
         System.out.println("Login Required");
@@ -264,25 +1443,39 @@ public class EmployeeManagementSystem {
             System.out.println("5. Delete Employee");
             System.out.println("6. Display Sorted Employees");
             System.out.println("7. Display Departments");
-            System.out.println("8. Exit");
+            System.out.println("8. Employees in Department");
+            System.out.println("9. Employees by Salary Range");
+            System.out.println("10. Bulk Salary Raise by Department");
+            System.out.println("11. Exit");
             System.out.print("Enter choice: ");
             
             int choice = sc.nextInt();
             sc.nextLine();
             
-            switch(choice) {
-                case 1: em.addEmployee(sc); break;
-                case 2: em.displayAll(); break;
-                case 3: em.searchById(sc); break;
-                case 4: em.updateSalary(sc); break;
-                case 5: em.deleteEmployee(sc); break;
-                case 6: em.displaySorted(); break;
-                case 7: em.displayDepartments(); break;
-                case 8:
-                    System.out.println("Thank you");
-                    sc.close();
-                    System.exit(0);
-                default: System.out.println("Invalid choice");
+            try {
+                switch(choice) {
+                    case 1: em.addEmployee(sc); break;
+                    case 2: em.displayAll(); break;
+                    case 3: em.searchById(sc); break;
+                    case 4: em.updateSalary(sc); break;
+                    case 5: em.deleteEmployee(sc); break;
+                    case 6: em.displaySorted(); break;
+                    case 7: em.displayDepartments(); break;
+                    case 8: em.displayByDepartment(sc); break;
+                    case 9: em.displaySalaryRange(sc); break;
+                    case 10: em.bulkRaise(sc); break;
+                    case 11:
+                        em.shutdown();
+                        System.out.println("Thank you");
+                        sc.close();
+                        System.exit(0);
+                    default: System.out.println("Invalid choice");
+                }
+            } catch(UncheckedIOException e) {
+                // The data files could not be read; stop before anything is saved over them
+                System.out.println(e.getMessage());
+                sc.close();
+                return;
             }
         }
     }
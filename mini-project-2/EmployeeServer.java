@@ -0,0 +1,159 @@
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// TCP command server that lets many clients use one EmployeeManagement at the same time
+//
+// Protocol: one command per line, one response per command, in order.
+//   ADD id,name,salary,department    -> OK | ERR message
+//   GET id                           -> OK id,name,salary,department | NOTFOUND
+//   SALARY id amount                 -> OK | NOTFOUND | ERR message
+//   DEL id                           -> OK | NOTFOUND
+//   SORTED                           -> OK n, followed by n employee lines
+//   DEPTS                            -> OK n, followed by n department lines
+//   QUIT                             -> closes the connection
+// Clients may pipeline: send many commands before reading the responses.
+// Commands need no login, so the server only listens on the loopback interface.
+public class EmployeeServer {
+    private EmployeeManagement em;
+    private ExecutorService executor;
+    
+    public EmployeeServer(EmployeeManagement em) {
+        this.em = em;
+        this.executor = newConnectionExecutor();
+    }
+    
+    // Method to use a virtual thread per connection when the JVM supports it (Java 21+)
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch(ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+    
+    // Method to accept connections from this machine until the process is stopped
+    public void serve(int port) throws IOException {
+        try(ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println("Employee server listening on " + serverSocket.getInetAddress().getHostAddress() + ":" + port);
+            while(true) {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> handle(socket));
+            }
+        }
+    }
+    
+    // Method to serve one client connection
+    private void handle(Socket socket) {
+        try(Socket s = socket;
+            BufferedReader reader = new BufferedReader(new InputStreamReader(s.getInputStream()));
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(s.getOutputStream()))) {
+            
+            s.setTcpNoDelay(true);
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.equals("QUIT")) {
+                    break;
+                }
+                writer.write(execute(line));
+                // Flush only when no more pipelined commands are waiting, so a burst gets one write
+                if(!reader.ready()) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch(IOException e) {
+            // Client went away
+        }
+    }
+    
+    // Method to run one command and return its response lines
+    private String execute(String line) {
+        int space = line.indexOf(' ');
+        String command = space < 0 ? line : line.substring(0, space);
+        String arg = space < 0 ? "" : line.substring(space + 1);
+        
+        try {
+            switch(command) {
+                case "ADD": {
+                    Employee emp = Employee.fromFileString(arg);
+                    String error = validate(emp);
+                    if(error != null) {
+                        return "ERR " + error + "\n";
+                    }
+                    return em.addEmployee(emp) ? "OK\n" : "ERR Employee ID must be unique\n";
+                }
+                case "GET": {
+                    Employee emp = em.getEmployee(arg);
+                    return emp != null ? "OK " + emp.toFileString() + "\n" : "NOTFOUND\n";
+                }
+                case "SALARY": {
+                    String[] parts = arg.split(" ");
+                    double salary = Double.parseDouble(parts[1]);
+                    if(!Double.isFinite(salary) || salary <= 0) {
+                        return "ERR Salary must be a positive number\n";
+                    }
+                    return em.updateSalary(parts[0], salary) ? "OK\n" : "NOTFOUND\n";
+                }
+                case "DEL":
+                    return em.deleteEmployee(arg) ? "OK\n" : "NOTFOUND\n";
+                case "SORTED": {
+                    List<Employee> sorted = new ArrayList<>(em.getEmployeesSortedById());
+                    StringBuilder sb = new StringBuilder("OK " + sorted.size() + "\n");
+                    for(Employee emp : sorted) {
+                        sb.append(emp.toFileString()).append('\n');
+                    }
+                    return sb.toString();
+                }
+                case "DEPTS": {
+                    List<String> departments = new ArrayList<>(em.getDepartments());
+                    StringBuilder sb = new StringBuilder("OK " + departments.size() + "\n");
+                    for(String dept : departments) {
+                        sb.append(dept).append('\n');
+                    }
+                    return sb.toString();
+                }
+                default:
+                    return "ERR Unknown command\n";
+            }
+        } catch(RuntimeException e) {
+            return "ERR Invalid input\n";
+        }
+    }
+    
+    // Method to apply the same checks as the console add
+    private static String validate(Employee emp) {
+        if(emp.getId().isEmpty() || !EmployeeRecordFile.fits(emp.getId(), EmployeeRecordFile.MAX_ID_LENGTH)) {
+            return "Employee ID must be 1 to " + EmployeeRecordFile.MAX_ID_LENGTH + " characters";
+        }
+        if(!EmployeeRecordFile.fits(emp.getName(), EmployeeRecordFile.MAX_NAME_LENGTH)) {
+            return "Name cannot exceed " + EmployeeRecordFile.MAX_NAME_LENGTH + " characters";
+        }
+        if(!Double.isFinite(emp.getSalary()) || emp.getSalary() <= 0) {
+            return "Salary must be a positive number";
+        }
+        if(emp.getDepartment().trim().isEmpty()) {
+            return "Department cannot be empty";
+        }
+        if(!EmployeeRecordFile.fits(emp.getDepartment(), EmployeeRecordFile.MAX_DEPT_LENGTH)) {
+            return "Department cannot exceed " + EmployeeRecordFile.MAX_DEPT_LENGTH + " characters";
+        }
+        return null;
+    }
+    
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+        EmployeeManagement em;
+        try {
+            em = new EmployeeManagement();
+        } catch(UncheckedIOException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        
+        // Compact the log and close it when the server is stopped
+        Runtime.getRuntime().addShutdownHook(new Thread(em::shutdown));
+        new EmployeeServer(em).serve(port);
+    }
+}
@@ -0,0 +1,100 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Multithreaded stress run for EmployeeManagement
+// Every thread mixes lookups, adds, salary updates, deletes and department queries on a shared store,
+// one thread also applies department raises, and afterwards the employee count is checked against the
+// successful adds and deletes and the ID, salary and department indexes are checked against the map
+//
+// Usage: java EmployeeStressBenchmark [employees] [opsPerThread] [threads1,threads2,...]
+public class EmployeeStressBenchmark {
+    private static final int DEPARTMENTS = 10;
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int employeeCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        int[] threadCounts = args.length > 2 ? BenchmarkHarness.parseCounts(args[2]) : new int[] { 1, 2, 4, 8, 16 };
+        
+        // A shorter pass on 4 threads first, so the measured passes run compiled code
+        run(employeeCount, opsPerThread / 10, 4, false);
+        boolean allConsistent = true;
+        for(int threads : threadCounts) {
+            allConsistent &= run(employeeCount, opsPerThread, threads, true);
+        }
+        
+        if(!allConsistent) {
+            System.out.println("FAILED: employees and indexes do not agree");
+            System.exit(1);
+        }
+    }
+    
+    private static boolean run(int employeeCount, int opsPerThread, int threads, boolean report)
+            throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("employee-stress");
+        EmployeeManagement em = new EmployeeManagement(dir.toString(), EmployeeLog.SyncPolicy.GROUP_COMMIT, false);
+        for(int i = 0; i < employeeCount; i++) {
+            em.addEmployee(new Employee("E" + i, "Employee " + i, 30000 + i % 70000, "D" + (i % DEPARTMENTS)));
+        }
+        
+        // Successful adds minus successful deletes per thread; IDs are drawn from twice the initial
+        // range, so threads race to add and delete the same IDs
+        long[] netAdds = new long[threads];
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for(int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(id);
+                long net = 0;
+                for(int i = 0; i < opsPerThread; i++) {
+                    String empId = "E" + random.nextInt(2 * employeeCount);
+                    String dept = "D" + random.nextInt(DEPARTMENTS);
+                    int op = random.nextInt(100);
+                    if(id == 0 && i % 20000 == 19999) {
+                        em.applyDepartmentRaise(dept, 1);
+                    } else if(op < 40) {
+                        em.getEmployee(empId);
+                    } else if(op < 60) {
+                        em.updateSalary(empId, 30000 + random.nextInt(70000));
+                    } else if(op < 75) {
+                        if(em.addEmployee(new Employee(empId, "Employee " + i, 30000 + random.nextInt(70000), dept))) {
+                            net++;
+                        }
+                    } else if(op < 90) {
+                        if(em.deleteEmployee(empId)) {
+                            net--;
+                        }
+                    } else {
+                        em.getEmployeesInDepartment(dept);
+                    }
+                }
+                netAdds[id] = net;
+            });
+            workers[t].start();
+        }
+        for(Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - start;
+        
+        long expected = employeeCount;
+        for(long net : netAdds) {
+            expected += net;
+        }
+        long actual = em.getEmployeesSortedById().size();
+        String mismatch = em.checkIndexes();
+        if(mismatch == null && expected != actual) {
+            mismatch = actual + " employees, expected " + expected;
+        }
+        em.shutdown();
+        
+        if(report) {
+            long ops = (long) opsPerThread * threads;
+            System.out.printf(Locale.ROOT, "threads=%-3d employees=%-8d %14.0f ops/s  count=%d %s%n",
+                              threads, employeeCount, ops * 1e9 / nanos, actual,
+                              mismatch == null ? "OK" : "MISMATCH: " + mismatch);
+        }
+        return mismatch == null;
+    }
+}
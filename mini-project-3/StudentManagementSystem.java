@@ -1,5 +1,10 @@
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.*;
-import java.util.Scanner;
+import java.util.*;
 
 // Custom exception for duplicate enrollment number
 class DuplicateEnoException extends Exception {
@@ -22,29 +27,555 @@ class EmptyFieldException extends Exception {
     }
 }
 
+// Student class to hold a row of the Students table
+class Student {
+    private int eno;
+    private String name;
+    private String branch;
+    private double percentage;
+    private int semester;
+    
+    public Student(int eno, String name, String branch, double percentage, int semester) {
+        this.eno = eno;
+        this.name = name;
+        this.branch = branch;
+        this.percentage = percentage;
+        this.semester = semester;
+    }
+    
+    public int getEno() {
+        return eno;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getBranch() {
+        return branch;
+    }
+    
+    public double getPercentage() {
+        return percentage;
+    }
+    
+    public int getSemester() {
+        return semester;
+    }
+}
+
+// Bounded LRU cache of student rows keyed by Eno, with a time-to-live per entry
+class StudentCache {
+    private int maxSize;
+    private long ttlMillis;
+    private LinkedHashMap<Integer, CachedStudent> entries;
+    
+    // Cache statistics
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long expirations = 0;
+    
+    private static class CachedStudent {
+        Student student;
+        long loadedAt;
+        
+        CachedStudent(Student student, long loadedAt) {
+            this.student = student;
+            this.loadedAt = loadedAt;
+        }
+    }
+    
+    public StudentCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        // Access order keeps the least recently used entry first
+        this.entries = new LinkedHashMap<Integer, CachedStudent>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedStudent> eldest) {
+                if(size() > StudentCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    // Method to return a cached student, or null on a miss or expired entry
+    public synchronized Student get(int eno) {
+        CachedStudent cached = entries.get(eno);
+        if(cached == null) {
+            misses++;
+            return null;
+        }
+        if(System.currentTimeMillis() - cached.loadedAt > ttlMillis) {
+            entries.remove(eno);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return cached.student;
+    }
+    
+    public synchronized void put(Student s) {
+        entries.put(s.getEno(), new CachedStudent(s, System.currentTimeMillis()));
+    }
+    
+    public synchronized void invalidate(int eno) {
+        entries.remove(eno);
+    }
+    
+    // Method to display cache statistics
+    public synchronized void printStats() {
+        long lookups = hits + misses;
+        System.out.println("\n----- Student Cache Stats -----");
+        System.out.println("Entries: " + entries.size() + ", Max: " + maxSize + ", TTL: " + ttlMillis + " ms");
+        System.out.printf("Hits: %d, Misses: %d, Hit ratio: %.1f%%%n",
+                          hits, misses, lookups == 0 ? 0.0 : hits * 100.0 / lookups);
+        System.out.println("Evictions: " + evictions + ", Expirations: " + expirations);
+    }
+}
+
+// Bounded connection pool so operations reuse connections instead of opening new ones
+class ConnectionPool {
+    private String url;
+    private String dbUsername;
+    private String dbPassword;
+    private int maxSize;
+    private long idleTimeoutMillis;
+    private long borrowTimeoutMillis;
+    private long leakThresholdMillis;
+    private int statementCacheSize;
+    
+    // Idle connections, most recently returned first
+    private ArrayDeque<IdleConnection> idle = new ArrayDeque<>();
+    // Borrowed connections mapped to the time they were handed out
+    private IdentityHashMap<Connection, Long> borrowed = new IdentityHashMap<>();
+    // Prepared statements kept open for each physical connection
+    private IdentityHashMap<Connection, StatementCache> statementCaches = new IdentityHashMap<>();
+    private int totalCount = 0;
+    private boolean driverLoaded = false;
+    private boolean shutdown = false;
+    
+    // Pool statistics
+    private long borrowCount = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+    private long createdCount = 0;
+    private long evictedCount = 0;
+    private long invalidCount = 0;
+    private long leakCount = 0;
+    private long statementHits = 0;
+    private long statementMisses = 0;
+    
+    private static class IdleConnection {
+        Connection connection;
+        long lastUsed;
+        
+        IdleConnection(Connection connection, long lastUsed) {
+            this.connection = connection;
+            this.lastUsed = lastUsed;
+        }
+    }
+    
+    // LRU map of SQL text to an open prepared statement; evicted statements are closed
+    private static class StatementCache extends LinkedHashMap<String, PreparedStatement> {
+        private static final long serialVersionUID = 1L;
+        private int maxSize;
+        
+        StatementCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+        
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if(size() > maxSize) {
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    }
+    
+    public ConnectionPool(String url, String dbUsername, String dbPassword, int maxSize,
+                          long idleTimeoutMillis, long borrowTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize) {
+        this.url = url;
+        this.dbUsername = dbUsername;
+        this.dbPassword = dbPassword;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+    }
+    
+    // Method to borrow a connection; closing it returns it to the pool
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + borrowTimeoutMillis * 1000000L;
+        
+        while(true) {
+            Connection raw = null;
+            boolean create = false;
+            List<Connection> expired;
+            
+            synchronized(this) {
+                if(shutdown) {
+                    throw new SQLException("Connection pool is shut down");
+                }
+                expired = evictIdle();
+                while(raw == null && !create) {
+                    IdleConnection ic = idle.pollFirst();
+                    if(ic != null) {
+                        raw = ic.connection;
+                    } else if(totalCount < maxSize) {
+                        totalCount++;
+                        create = true;
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if(remaining <= 0) {
+                            throw new SQLException("Timed out waiting for a database connection");
+                        }
+                        try {
+                            wait(remaining / 1000000L + 1);
+                        } catch(InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted while waiting for a database connection");
+                        }
+                    }
+                }
+            }
+            
+            for(Connection c : expired) {
+                closeQuietly(c);
+            }
+            
+            if(create) {
+                try {
+                    raw = openConnection();
+                } catch(SQLException e) {
+                    discard(null);
+                    throw e;
+                }
+            } else if(!isUsable(raw)) {
+                // Validation on borrow: drop broken connections and try again
+                closeQuietly(raw);
+                discard(raw);
+                continue;
+            }
+            
+            return checkout(raw, System.nanoTime() - start);
+        }
+    }
+    
+    // Method to close idle connections and stop handing out new ones
+    public void shutdown() {
+        List<Connection> toClose = new ArrayList<>();
+        synchronized(this) {
+            shutdown = true;
+            for(IdleConnection ic : idle) {
+                toClose.add(ic.connection);
+                statementCaches.remove(ic.connection);
+            }
+            totalCount -= idle.size();
+            idle.clear();
+            notifyAll();
+        }
+        for(Connection c : toClose) {
+            closeQuietly(c);
+        }
+    }
+    
+    // Method to display pool statistics
+    public synchronized void printStats() {
+        long now = System.currentTimeMillis();
+        int heldTooLong = 0;
+        for(long borrowedAt : borrowed.values()) {
+            if(now - borrowedAt > leakThresholdMillis) {
+                heldTooLong++;
+            }
+        }
+        
+        System.out.println("\n----- Connection Pool Stats -----");
+        System.out.println("Active: " + borrowed.size() + ", Idle: " + idle.size() + ", Max: " + maxSize);
+        System.out.println("Borrowed: " + borrowCount + ", Created: " + createdCount +
+                           ", Evicted: " + evictedCount + ", Invalid: " + invalidCount);
+        System.out.printf("Borrow wait avg: %.3f ms, max: %.3f ms%n",
+                          borrowCount == 0 ? 0.0 : totalWaitNanos / 1e6 / borrowCount, maxWaitNanos / 1e6);
+        System.out.println("Leaks detected: " + leakCount + ", Currently held too long: " + heldTooLong);
+        long lookups = statementHits + statementMisses;
+        System.out.printf("Statement cache hits: %d, misses: %d, hit ratio: %.1f%%%n",
+                          statementHits, statementMisses, lookups == 0 ? 0.0 : statementHits * 100.0 / lookups);
+    }
+    
+    private Connection openConnection() throws SQLException {
+        synchronized(this) {
+            if(!driverLoaded) {
+                try {
+                    Class.forName("com.mysql.cj.jdbc.Driver");
+                    driverLoaded = true;
+                } catch(ClassNotFoundException e) {
+                    throw new SQLException("MySQL Driver not found");
+                }
+            }
+        }
+        Connection conn = DriverManager.getConnection(url, dbUsername, dbPassword);
+        synchronized(this) {
+            createdCount++;
+            statementCaches.put(conn, new StatementCache(statementCacheSize));
+        }
+        return conn;
+    }
+    
+    private boolean isUsable(Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(2);
+        } catch(SQLException e) {
+            return false;
+        }
+    }
+    
+    private synchronized Connection checkout(Connection raw, long waitNanos) {
+        borrowed.put(raw, System.currentTimeMillis());
+        borrowCount++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+        
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new PooledConnectionHandler(raw));
+    }
+    
+    // Called when a borrowed connection is closed by the caller
+    private void release(Connection raw) {
+        boolean reusable = isReusable(raw);
+        
+        synchronized(this) {
+            Long borrowedAt = borrowed.remove(raw);
+            if(borrowedAt != null) {
+                long held = System.currentTimeMillis() - borrowedAt;
+                if(held > leakThresholdMillis) {
+                    leakCount++;
+                    System.out.println("Warning: connection held for " + held + " ms (possible leak)");
+                }
+            }
+            
+            if(reusable && !shutdown) {
+                idle.addFirst(new IdleConnection(raw, System.currentTimeMillis()));
+                notifyAll();
+                return;
+            }
+        }
+        
+        closeQuietly(raw);
+        discard(raw);
+    }
+    
+    // Method to restore default state before a connection goes back to the pool
+    private boolean isReusable(Connection raw) {
+        try {
+            if(raw.isClosed()) {
+                return false;
+            }
+            if(!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            return true;
+        } catch(SQLException e) {
+            return false;
+        }
+    }
+    
+    private synchronized void discard(Connection raw) {
+        totalCount--;
+        if(raw != null) {
+            statementCaches.remove(raw);
+            invalidCount++;
+        }
+        notifyAll();
+    }
+    
+    // Must be called while holding the pool lock; idle connections past the timeout are removed
+    private List<Connection> evictIdle() {
+        List<Connection> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        while(!idle.isEmpty() && now - idle.peekLast().lastUsed > idleTimeoutMillis) {
+            Connection conn = idle.pollLast().connection;
+            statementCaches.remove(conn);
+            expired.add(conn);
+            totalCount--;
+            evictedCount++;
+        }
+        return expired;
+    }
+    
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch(Exception e) {
+            // Resource is being discarded anyway
+        }
+    }
+    
+    private synchronized StatementCache statementCache(Connection raw) {
+        return statementCaches.get(raw);
+    }
+    
+    private synchronized void recordStatementLookup(boolean hit) {
+        if(hit) {
+            statementHits++;
+        } else {
+            statementMisses++;
+        }
+    }
+    
+    // Wraps a physical connection so close() returns it to the pool
+    private class PooledConnectionHandler implements InvocationHandler {
+        private Connection raw;
+        private boolean closed = false;
+        
+        PooledConnectionHandler(Connection raw) {
+            this.raw = raw;
+        }
+        
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if(name.equals("close")) {
+                if(!closed) {
+                    closed = true;
+                    release(raw);
+                }
+                return null;
+            }
+            if(name.equals("isClosed")) {
+                return closed || raw.isClosed();
+            }
+            if(closed) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            if(name.equals("prepareStatement") && args.length == 1 && statementCacheSize > 0) {
+                return prepareCached((String) args[0]);
+            }
+            try {
+                return method.invoke(raw, args);
+            } catch(InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        
+        // Method to reuse an open statement for the same SQL text on this connection
+        private PreparedStatement prepareCached(String sql) throws SQLException {
+            StatementCache cache = statementCache(raw);
+            // Removing it while in use means a nested prepare of the same SQL gets its own statement
+            PreparedStatement stmt = cache.remove(sql);
+            recordStatementLookup(stmt != null);
+            if(stmt == null || stmt.isClosed()) {
+                stmt = raw.prepareStatement(sql);
+            }
+            
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new CachedStatementHandler(sql, stmt, cache));
+        }
+    }
+    
+    // Wraps a cached statement so close() puts it back in the connection's cache
+    private static class CachedStatementHandler implements InvocationHandler {
+        private String sql;
+        private PreparedStatement stmt;
+        private StatementCache cache;
+        private boolean closed = false;
+        
+        CachedStatementHandler(String sql, PreparedStatement stmt, StatementCache cache) {
+            this.sql = sql;
+            this.stmt = stmt;
+            this.cache = cache;
+        }
+        
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if(name.equals("close")) {
+                if(!closed) {
+                    closed = true;
+                    try {
+                        stmt.clearParameters();
+                        stmt.clearBatch();
+                        PreparedStatement previous = cache.put(sql, stmt);
+                        if(previous != null && previous != stmt) {
+                            closeQuietly(previous);
+                        }
+                    } catch(SQLException e) {
+                        closeQuietly(stmt);
+                    }
+                }
+                return null;
+            }
+            if(name.equals("isClosed")) {
+                return closed || stmt.isClosed();
+            }
+            if(closed) {
+                throw new SQLException("Statement has been returned to the cache");
+            }
+            try {
+                return method.invoke(stmt, args);
+            } catch(InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
+
 // Student Management class with JDBC operations
 class StudentManager {
-    private String url = "jdbc:mysql://localhost:3306/studentdb";
+    // useAffectedRows makes an unchanged duplicate row report 0 in insertStudents instead of the matched count.
+    // useServerPrepStmts makes the server parse each statement once; the pool keeps those statements open per
+    // connection, so the driver's own cachePrepStmts would only hold the same statements a second time.
+    private String url = "jdbc:mysql://localhost:3306/studentdb?useAffectedRows=true&useServerPrepStmts=true";
     private String dbUsername = "root";
     private String dbPassword = "password";
     private String username = "admin";
     private String password = "admin123";
+    private ConnectionPool pool = new ConnectionPool(url, dbUsername, dbPassword, 5, 60000, 5000, 10000, 20);
+    private StudentCache cache = new StudentCache(10000, 300000);
+    private int pageSize = 500;
     
     // Method to validate login
     public boolean login(String user, String pass) {
         return username.equals(user) && password.equals(pass);
     }
     
-    // Method to establish database connection
+    // Method to borrow a database connection from the pool
     private Connection getConnection() throws SQLException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(url, dbUsername, dbPassword);
-        } catch(ClassNotFoundException e) {
-            throw new SQLException("MySQL Driver not found");
+        return pool.getConnection();
+    }
+    
+    // Method to set how many rows are fetched per page when listing students
+    public void setPageSize(int pageSize) {
+        if(pageSize > 0) {
+            this.pageSize = pageSize;
         }
     }
     
+    // Method to display connection pool statistics
+    public void displayPoolStats() {
+        pool.printStats();
+    }
+    
+    // Method to display student cache statistics
+    public void displayCacheStats() {
+        cache.printStats();
+    }
+    
+    // Method to release pooled connections on exit
+    public void close() {
+        pool.shutdown();
+    }
+    
     // Method to create Students table if not exists
     public void createTable() {
         try(Connection conn = getConnection();
@@ -63,63 +594,81 @@ class StudentManager {
         }
     }
     
+    // Method to read one student from the console with validation
+    private Student readStudent(Scanner sc) throws InvalidPercentageException, EmptyFieldException {
+        System.out.print("Enter Enrollment Number: ");
+        int eno = sc.nextInt();
+        sc.nextLine();
+        
+        System.out.print("Enter Name: ");
+        String name = sc.nextLine();
+        
+        System.out.print("Enter Branch: ");
+        String branch = sc.nextLine();
+        
+        // Validation: Branch cannot be empty
+        if(branch.trim().isEmpty()) {
+            throw new EmptyFieldException("Branch cannot be empty");
+        }
+        
+        System.out.print("Enter Percentage: ");
+        double percentage = sc.nextDouble();
+        
+        // Validation: Percentage must be positive
+        if(percentage <= 0) {
+            throw new InvalidPercentageException("Percentage must be positive");
+        }
+        
+        System.out.print("Enter Semester: ");
+        int semester = sc.nextInt();
+        sc.nextLine();
+        
+        // Validation: Semester cannot be empty (0)
+        if(semester <= 0) {
+            throw new EmptyFieldException("Semester cannot be empty");
+        }
+        
+        return new Student(eno, name, branch, percentage, semester);
+    }
+    
     // Method to add student with validation
     public void addStudent(Scanner sc) {
         try {
-            System.out.print("Enter Enrollment Number: ");
-            int eno = sc.nextInt();
+            // Insert student record; the Eno primary key rejects duplicates
+            insertStudent(readStudent(sc));
+            System.out.println("Student added successfully");
+        
+        } catch(DuplicateEnoException | InvalidPercentageException | EmptyFieldException e) {
+            System.out.println("Validation Error: " + e.getMessage());
+        } catch(SQLException e) {
+            System.out.println("Database Error: " + e.getMessage());
+        } catch(Exception e) {
+            System.out.println("Error: Invalid input");
             sc.nextLine();
-            
-            // Validation: Check if Eno already exists
-            if(checkEnoExists(eno)) {
-                throw new DuplicateEnoException("Enrollment number must be unique");
-            }
-            
-            System.out.print("Enter Name: ");
-            String name = sc.nextLine();
-            
-            System.out.print("Enter Branch: ");
-            String branch = sc.nextLine();
-            
-            // Validation: Branch cannot be empty
-            if(branch.trim().isEmpty()) {
-                throw new EmptyFieldException("Branch cannot be empty");
-            }
-            
-            System.out.print("Enter Percentage: ");
-            double percentage = sc.nextDouble();
-            
-            // Validation: Percentage must be positive
-            if(percentage <= 0) {
-                throw new InvalidPercentageException("Percentage must be positive");
-            }
-            
-            System.out.print("Enter Semester: ");
-            int semester = sc.nextInt();
+        }
+    }
+    
+    // Method to add several students and insert them in one batch
+    public void addMultipleStudents(Scanner sc) {
+        try {
+            System.out.print("Enter number of students: ");
+            int count = sc.nextInt();
             sc.nextLine();
             
-            // Validation: Semester cannot be empty (0)
-            if(semester <= 0) {
-                throw new EmptyFieldException("Semester cannot be empty");
+            List<Student> students = new ArrayList<>();
+            for(int i = 1; i <= count; i++) {
+                System.out.println("\nStudent " + i + " of " + count);
+                students.add(readStudent(sc));
             }
             
-            // Insert student record
-            try(Connection conn = getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(
-                    "INSERT INTO Students VALUES (?, ?, ?, ?, ?)")) {
-                
-                pstmt.setInt(1, eno);
-                pstmt.setString(2, name);
-                pstmt.setString(3, branch);
-                pstmt.setDouble(4, percentage);
-                pstmt.setInt(5, semester);
-                
-                pstmt.executeUpdate();
-                System.out.println("Student added successfully");
+            List<Integer> duplicates = insertStudents(students);
+            System.out.println((students.size() - duplicates.size()) + " students added successfully");
+            if(!duplicates.isEmpty()) {
+                System.out.println("Skipped existing enrollment numbers: " + duplicates);
             }
-            
-        } catch(DuplicateEnoException | InvalidPercentageException | EmptyFieldException e) {
-            System.out.println("Validation Error: " + e.getMessage());
+        
+        } catch(InvalidPercentageException | EmptyFieldException e) {
+            System.out.println("Validation Error: " + e.getMessage() + " (no students were added)");
         } catch(SQLException e) {
             System.out.println("Database Error: " + e.getMessage());
         } catch(Exception e) {
@@ -128,43 +677,138 @@ class StudentManager {
         }
     }
     
-    // Method to check if enrollment number exists
-    private boolean checkEnoExists(int eno) throws SQLException {
+    // Method to insert a single student in one round trip
+    public void insertStudent(Student s) throws SQLException, DuplicateEnoException {
         try(Connection conn = getConnection();
             PreparedStatement pstmt = conn.prepareStatement(
-                "SELECT Eno FROM Students WHERE Eno = ?")) {
+                "INSERT INTO Students VALUES (?, ?, ?, ?, ?)")) {
+            
+            bindStudent(pstmt, s);
+            pstmt.executeUpdate();
+        } catch(SQLException e) {
+            if(isDuplicateKey(e)) {
+                throw new DuplicateEnoException("Enrollment number must be unique");
+            }
+            throw e;
+        }
+    }
+    
+    // Method to insert many students in one batch; returns enrollment numbers that already existed
+    public List<Integer> insertStudents(List<Student> students) throws SQLException {
+        List<Integer> duplicates = new ArrayList<>();
+        if(students.isEmpty()) {
+            return duplicates;
+        }
+        
+        // Duplicate rows are left unchanged and report 0 affected rows; this relies on useAffectedRows=true
+        // in the URL, since by default the driver counts the matched row and reports 1
+        try(Connection conn = getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO Students VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE Eno = Eno")) {
+            
+            for(Student s : students) {
+                bindStudent(pstmt, s);
+                pstmt.addBatch();
+            }
+            
+            int[] counts = pstmt.executeBatch();
+            for(int i = 0; i < counts.length; i++) {
+                if(counts[i] == 0) {
+                    duplicates.add(students.get(i).getEno());
+                }
+            }
+        }
+        return duplicates;
+    }
+    
+    private void bindStudent(PreparedStatement pstmt, Student s) throws SQLException {
+        pstmt.setInt(1, s.getEno());
+        pstmt.setString(2, s.getName());
+        pstmt.setString(3, s.getBranch());
+        pstmt.setDouble(4, s.getPercentage());
+        pstmt.setInt(5, s.getSemester());
+    }
+    
+    // Method to check whether an error is a primary key violation (MySQL error 1062, ER_DUP_ENTRY)
+    private boolean isDuplicateKey(SQLException e) {
+        return e instanceof SQLIntegrityConstraintViolationException
+            || e.getErrorCode() == 1062;
+    }
+    
+    // Method to look up a student, served from the cache when possible
+    private Student findStudent(int eno) throws SQLException {
+        Student s = cache.get(eno);
+        if(s != null) {
+            return s;
+        }
+        
+        try(Connection conn = getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT Eno, Name, Branch, Percentage, Semester FROM Students WHERE Eno = ?")) {
             
             pstmt.setInt(1, eno);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next();
+            try(ResultSet rs = pstmt.executeQuery()) {
+                if(!rs.next()) {
+                    return null;
+                }
+                s = new Student(rs.getInt(1), rs.getString(2), rs.getString(3),
+                                rs.getDouble(4), rs.getInt(5));
+            }
         }
+        cache.put(s);
+        return s;
     }
     
     // Method to display all students
     public void displayAllStudents() {
+        displayStudents("All Students");
+    }
+    
+    // Method to stream students page by page using keyset pagination on Eno
+    private void displayStudents(String title) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
+        
         try(Connection conn = getConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SELECT * FROM Students")) {
+            PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT Eno, Name, Branch, Percentage, Semester FROM Students " +
+                "WHERE Eno > ? ORDER BY Eno LIMIT ?")) {
             
-            System.out.println("\n----- All Students -----");
+            pstmt.setFetchSize(pageSize);
+            out.println("\n----- " + title + " -----");
             boolean found = false;
-            
-            while(rs.next()) {
-                found = true;
-                System.out.println("Eno: " + rs.getInt("Eno"));
-                System.out.println("Name: " + rs.getString("Name"));
-                System.out.println("Branch: " + rs.getString("Branch"));
-                System.out.println("Percentage: " + rs.getDouble("Percentage"));
-                System.out.println("Semester: " + rs.getInt("Semester"));
-                System.out.println("------------------------");
-            }
+            // Below every int, so the first page also includes an Eno of Integer.MIN_VALUE
+            long lastEno = Long.MIN_VALUE;
+            int rowsInPage;
+            
+            // Only one page of rows is held at a time, whatever the table size
+            do {
+                pstmt.setLong(1, lastEno);
+                pstmt.setInt(2, pageSize);
+                rowsInPage = 0;
+                
+                try(ResultSet rs = pstmt.executeQuery()) {
+                    while(rs.next()) {
+                        found = true;
+                        rowsInPage++;
+                        lastEno = rs.getInt(1);
+                        out.println("Eno: " + lastEno);
+                        out.println("Name: " + rs.getString(2));
+                        out.println("Branch: " + rs.getString(3));
+                        out.println("Percentage: " + rs.getDouble(4));
+                        out.println("Semester: " + rs.getInt(5));
+                        out.println("------------------------");
+                    }
+                }
+            } while(rowsInPage == pageSize);
             
             if(!found) {
-                System.out.println("No students found");
+                out.println("No students found");
             }
-            
+        
         } catch(SQLException e) {
-            System.out.println("Database Error: " + e.getMessage());
+            out.println("Database Error: " + e.getMessage());
+        } finally {
+            out.flush();
         }
     }
     
@@ -175,25 +819,18 @@ class StudentManager {
             int eno = sc.nextInt();
             sc.nextLine();
             
-            try(Connection conn = getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(
-                    "SELECT * FROM Students WHERE Eno = ?")) {
-                
-                pstmt.setInt(1, eno);
-                ResultSet rs = pstmt.executeQuery();
-                
-                if(rs.next()) {
-                    System.out.println("\n----- Student Found -----");
-                    System.out.println("Eno: " + rs.getInt("Eno"));
-                    System.out.println("Name: " + rs.getString("Name"));
-                    System.out.println("Branch: " + rs.getString("Branch"));
-                    System.out.println("Percentage: " + rs.getDouble("Percentage"));
-                    System.out.println("Semester: " + rs.getInt("Semester"));
-                } else {
-                    System.out.println("Student not found");
-                }
+            Student s = findStudent(eno);
+            if(s != null) {
+                System.out.println("\n----- Student Found -----");
+                System.out.println("Eno: " + s.getEno());
+                System.out.println("Name: " + s.getName());
+                System.out.println("Branch: " + s.getBranch());
+                System.out.println("Percentage: " + s.getPercentage());
+                System.out.println("Semester: " + s.getSemester());
+            } else {
+                System.out.println("Student not found");
             }
-            
+        
         } catch(SQLException e) {
             System.out.println("Database Error: " + e.getMessage());
         } catch(Exception e) {
@@ -209,7 +846,7 @@ class StudentManager {
             int eno = sc.nextInt();
             sc.nextLine();
             
-            if(!checkEnoExists(eno)) {
+            if(findStudent(eno) == null) {
                 System.out.println("Student not found");
                 return;
             }
@@ -229,10 +866,18 @@ class StudentManager {
                 pstmt.setString(1, branch);
                 pstmt.setInt(2, eno);
                 
-                pstmt.executeUpdate();
-                System.out.println("Branch updated successfully");
+                // The existence check above may come from the cache, so the row can be gone by now.
+                // With useAffectedRows, setting the branch it already has also reports 0 rows.
+                int rowsAffected = pstmt.executeUpdate();
+                cache.invalidate(eno);
+                
+                if(rowsAffected > 0 || findStudent(eno) != null) {
+                    System.out.println("Branch updated successfully");
+                } else {
+                    System.out.println("Student not found");
+                }
             }
-            
+        
         } catch(EmptyFieldException e) {
             System.out.println("Validation Error: " + e.getMessage());
         } catch(SQLException e) {
@@ -256,6 +901,7 @@ class StudentManager {
                 
                 pstmt.setInt(1, eno);
                 int rowsAffected = pstmt.executeUpdate();
+                cache.invalidate(eno);
                 
                 if(rowsAffected > 0) {
                     System.out.println("Student deleted successfully");
@@ -263,7 +909,7 @@ class StudentManager {
                     System.out.println("Student not found");
                 }
             }
-            
+        
         } catch(SQLException e) {
             System.out.println("Database Error: " + e.getMessage());
         } catch(Exception e) {
@@ -274,31 +920,7 @@ class StudentManager {
     
     // Method to display students sorted by Eno
     public void displaySorted() {
-        try(Connection conn = getConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(
-                "SELECT * FROM Students ORDER BY Eno")) {
-            
-            System.out.println("\n----- Students Sorted by Eno -----");
-            boolean found = false;
-            
-            while(rs.next()) {
-                found = true;
-                System.out.println("Eno: " + rs.getInt("Eno"));
-                System.out.println("Name: " + rs.getString("Name"));
-                System.out.println("Branch: " + rs.getString("Branch"));
-                System.out.println("Percentage: " + rs.getDouble("Percentage"));
-                System.out.println("Semester: " + rs.getInt("Semester"));
-                System.out.println("------------------------");
-            }
-            
-            if(!found) {
-                System.out.println("No students found");
-            }
-            
-        } catch(SQLException e) {
-            System.out.println("Database Error: " + e.getMessage());
-        }
+        displayStudents("Students Sorted by Eno");
     }
 }
 
@@ -334,7 +956,8 @@ public class StudentManagementSystem {
             System.out.println("4. Update Student Branch");
             System.out.println("5. Delete Student by Eno");
             System.out.println("6. Display Sorted Students");
-            System.out.println("7. Exit");
+            System.out.println("7. Add Multiple Students");
+            System.out.println("8. Exit");
             System.out.print("Enter choice: ");
             
             int choice = sc.nextInt();
@@ -347,7 +970,11 @@ public class StudentManagementSystem {
                 case 4: sm.updateBranch(sc); break;
                 case 5: sm.deleteByEno(sc); break;
                 case 6: sm.displaySorted(); break;
-                case 7:
+                case 7: sm.addMultipleStudents(sc); break;
+                case 8:
+                    sm.displayPoolStats();
+                    sm.displayCacheStats();
+                    sm.close();
                     System.out.println("Thank you for using the system");
                     sc.close();
                     System.exit(0);
@@ -0,0 +1,93 @@
+import java.io.*;
+import java.util.*;
+
+// Measurement helpers shared by the store benchmarks: a warm-up run, a results table with JSON export,
+// comma-separated size lists and the streams used to silence or imitate the console
+//
+// Benchmarks compile with this directory on the source path, e.g.
+//   javac -sourcepath ../shared UniversityBenchmark.java UniversityManagement.java
+public class BenchmarkHarness {
+    // One measured pass over a store of the given size; report is false for the warm-up pass
+    public interface SizedRun {
+        void run(int size, boolean report) throws IOException;
+    }
+    
+    private List<String> results = new ArrayList<>();
+    // Taken before a benchmark redirects System.out, so results always reach the terminal
+    private PrintStream console = System.out;
+    private String rowFormat;
+    
+    public BenchmarkHarness(int nameWidth) {
+        rowFormat = "%-" + nameWidth + "s size=%-8d %14.1f ns/op %14.0f ops/s%n";
+    }
+    
+    // Method to run once on a small store so later passes are measured with compiled code, then once per size
+    public void runSizes(int warmupSize, int[] sizes, SizedRun run) throws IOException {
+        run.run(warmupSize, false);
+        for(int size : sizes) {
+            run.run(size, true);
+        }
+    }
+    
+    // Method to print one measurement and keep it for the JSON file
+    public void record(String name, int size, int ops, long nanos, boolean report) {
+        if(!report) {
+            return;
+        }
+        double nsPerOp = (double) nanos / ops;
+        double opsPerSec = 1e9 / nsPerOp;
+        console.printf(Locale.ROOT, rowFormat, name, size, nsPerOp, opsPerSec);
+        results.add(String.format(Locale.ROOT,
+            "{\"benchmark\":\"%s\",\"size\":%d,\"ops\":%d,\"nsPerOp\":%.1f,\"opsPerSec\":%.1f}",
+            name, size, ops, nsPerOp, opsPerSec));
+    }
+    
+    // Method to write every recorded measurement as a JSON array
+    public void writeJson(String output) throws IOException {
+        try(BufferedWriter writer = new BufferedWriter(new FileWriter(output))) {
+            writer.write("[\n  " + String.join(",\n  ", results) + "\n]\n");
+        }
+        console.println("Results written to " + output);
+    }
+    
+    // Method to parse a comma-separated list of sizes or thread counts such as "10000,100000"
+    public static int[] parseCounts(String arg) {
+        String[] parts = arg.split(",");
+        int[] counts = new int[parts.length];
+        for(int i = 0; i < parts.length; i++) {
+            counts[i] = Integer.parseInt(parts[i].trim());
+        }
+        return counts;
+    }
+    
+    // Method to get a stream that drops everything printed to it, for status messages outside the measurement
+    public static PrintStream discard() {
+        return new PrintStream(new OutputStream() {
+            public void write(int b) {
+            }
+            
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+    }
+    
+    // Method to open a file stream set up like System.out: a small buffer flushed on every println
+    public static PrintStream consoleLike(File file) throws IOException {
+        return new PrintStream(new BufferedOutputStream(new FileOutputStream(file), 128), true);
+    }
+    
+    // Method to delete a benchmark's temporary directory and everything in it
+    public static void deleteDirectory(File dir) {
+        File[] files = dir.listFiles();
+        if(files != null) {
+            for(File f : files) {
+                if(f.isDirectory()) {
+                    deleteDirectory(f);
+                } else {
+                    f.delete();
+                }
+            }
+        }
+        dir.delete();
+    }
+}